@@ -0,0 +1,102 @@
+package com.yasar.listigo.demo.util;
+
+import com.yasar.listigo.demo.security.VerifiedToken;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.Jwts;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.security.SecureRandom;
+import java.util.Base64;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares the per-request cost of authenticating a bearer token before and after
+ * {@link JwtUtil#verify}. The old filter validated the token, then extracted the user id and
+ * the roles, each with a fresh parser that decoded the Base64 secret and checked the
+ * signature again.
+ * <p>
+ * {@code verifyCold} cycles through more distinct tokens than its cache holds, so every call
+ * misses and pays for one parse plus the digest and cache lookup. {@code verifyCached}
+ * presents the same token each time, as a client does between refreshes.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class JwtVerifyBenchmark {
+
+    private static final int COLD_TOKENS = 1 << 14;
+
+    private String secret;
+    private JwtUtil cachedJwtUtil;
+    private JwtUtil coldJwtUtil;
+    private String token;
+    private String[] coldTokens;
+    private int next;
+
+    @Setup
+    public void setUp() {
+        byte[] key = new byte[64];
+        new SecureRandom().nextBytes(key);
+        secret = Base64.getEncoder().encodeToString(key);
+
+        cachedJwtUtil = jwtUtil(100_000);
+        coldJwtUtil = jwtUtil(1);
+
+        List<SimpleGrantedAuthority> authorities = List.of(new SimpleGrantedAuthority("ROLE_USER"));
+        token = cachedJwtUtil.generateToken(UUID.randomUUID(), authorities);
+        cachedJwtUtil.verify(token);
+        coldTokens = new String[COLD_TOKENS];
+        for (int i = 0; i < COLD_TOKENS; i++) {
+            coldTokens[i] = cachedJwtUtil.generateToken(UUID.randomUUID(), authorities);
+        }
+    }
+
+    @Benchmark
+    @SuppressWarnings("unchecked")
+    public void tripleParse(Blackhole blackhole) {
+        Jwts.parser().setSigningKey(secret).parseClaimsJws(token);
+        Claims subjectClaims = Jwts.parser().setSigningKey(secret).parseClaimsJws(token).getBody();
+        blackhole.consume(UUID.fromString(subjectClaims.getSubject()));
+        Claims roleClaims = Jwts.parser().setSigningKey(secret).parseClaimsJws(token).getBody();
+        blackhole.consume((List<String>) roleClaims.get("roles", List.class));
+    }
+
+    @Benchmark
+    public VerifiedToken verifyCold() {
+        String presented = coldTokens[next];
+        next = (next + 1) & (COLD_TOKENS - 1);
+        return coldJwtUtil.verify(presented);
+    }
+
+    @Benchmark
+    public VerifiedToken verifyCached() {
+        return cachedJwtUtil.verify(token);
+    }
+
+    private JwtUtil jwtUtil(long cacheMaxSize) {
+        JwtUtil jwtUtil = new JwtUtil(new SimpleMeterRegistry());
+        ReflectionTestUtils.setField(jwtUtil, "secret", secret);
+        ReflectionTestUtils.setField(jwtUtil, "expiration", TimeUnit.HOURS.toMillis(1));
+        ReflectionTestUtils.setField(jwtUtil, "verifiedCacheMaxSize", cacheMaxSize);
+        jwtUtil.init();
+        return jwtUtil;
+    }
+}
@@ -0,0 +1,243 @@
+package com.yasar.listigo.demo.cache;
+
+import com.yasar.listigo.demo.event.UserBlockChangedEvent;
+import com.yasar.listigo.demo.repository.BlockedUserRepository;
+import com.yasar.listigo.demo.repository.projection.BlockPair;
+import com.yasar.listigo.demo.util.BloomFilter;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * In-memory copy of the blocked_users table, answering "has this user blocked that user"
+ * without a query. For each blocker the blocked users are kept as a sorted long array of
+ * (most, least significant bits) pairs. A Bloom filter over all (blocker, blocked) pairs
+ * sits in front, so the common case of no block is answered without touching the map.
+ * <p>
+ * The table is loaded on startup and reloaded periodically to pick up changes made by
+ * other instances; local changes are applied from {@link UserBlockChangedEvent}s once
+ * committed. Until the first load finishes lookups fall back to the database.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class BlockedUserCache {
+
+    private static final long[] EMPTY = new long[0];
+
+    private final BlockedUserRepository blockedUserRepository;
+
+    private final Object lock = new Object();
+    private List<UserBlockChangedEvent> pendingChanges;
+    private volatile ConcurrentHashMap<UUID, long[]> blockedByBlocker;
+    private volatile BloomFilter filter;
+    private long filterCapacity;
+    private long filterInsertions;
+
+    @Value("${user.block-cache.false-positive-rate}")
+    private double falsePositiveRate;
+
+    @Value("${user.block-cache.min-capacity}")
+    private long minCapacity;
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(initialDelayString = "${user.block-cache.reload-interval-ms}",
+            fixedDelayString = "${user.block-cache.reload-interval-ms}")
+    public void reload() {
+        synchronized (lock) {
+            pendingChanges = new ArrayList<>();
+        }
+
+        long started = System.currentTimeMillis();
+        List<BlockPair> pairs;
+        try {
+            pairs = blockedUserRepository.findAllPairs();
+        } catch (RuntimeException ex) {
+            synchronized (lock) {
+                pendingChanges = null;
+            }
+            throw ex;
+        }
+
+        Map<UUID, List<UUID>> grouped = new HashMap<>();
+        for (BlockPair pair : pairs) {
+            grouped.computeIfAbsent(pair.getBlockerId(), blocker -> new ArrayList<>()).add(pair.getBlockedId());
+        }
+        ConcurrentHashMap<UUID, long[]> loaded = new ConcurrentHashMap<>(Math.max(grouped.size() * 4 / 3, 16));
+        grouped.forEach((blocker, blocked) -> loaded.put(blocker, toSortedBits(blocked)));
+
+        // Replaying a change the query already saw is harmless, as adding and removing are
+        // idempotent; dropping one committed during the query would not be
+        synchronized (lock) {
+            blockedByBlocker = loaded;
+            rebuildFilter(pairs.size());
+            pendingChanges.forEach(this::apply);
+            pendingChanges = null;
+        }
+        log.debug("Blocked user cache loaded {} blocks of {} users in {} ms",
+                pairs.size(), loaded.size(), System.currentTimeMillis() - started);
+    }
+
+    @TransactionalEventListener
+    public void onUserBlockChanged(UserBlockChangedEvent event) {
+        synchronized (lock) {
+            if (pendingChanges != null) {
+                pendingChanges.add(event);
+                return;
+            }
+            // Before the first load lookups go to the database, which the load will read
+            if (blockedByBlocker != null) {
+                apply(event);
+            }
+        }
+    }
+
+    /**
+     * Returns whether the blocker has blocked the other user.
+     *
+     * @param blockerId user who may have blocked
+     * @param blockedId user who may be blocked
+     * @return true if a block exists
+     */
+    public boolean isBlocked(UUID blockerId, UUID blockedId) {
+        BloomFilter currentFilter = filter;
+        if (currentFilter == null) {
+            return blockedUserRepository.existsByBlockerIdAndBlockedId(blockerId, blockedId);
+        }
+        if (!currentFilter.mightContain(pairKey(blockerId, blockedId))) {
+            return false;
+        }
+        long[] blocked = blockedByBlocker.get(blockerId);
+        return blocked != null && indexOf(blocked, blockedId) >= 0;
+    }
+
+    /**
+     * Must be called holding the lock, with blockedByBlocker loaded.
+     */
+    private void apply(UserBlockChangedEvent event) {
+        UUID blockerId = event.getBlockerId();
+        UUID blockedId = event.getBlockedId();
+        if (event.isBlocked()) {
+            // The filter learns the pair before the map, so a reader never sees a block the
+            // filter would reject
+            if (++filterInsertions > filterCapacity) {
+                rebuildFilter(filterInsertions);
+            }
+            filter.add(pairKey(blockerId, blockedId));
+            blockedByBlocker.compute(blockerId, (id, blocked) -> withBlocked(blocked, blockedId));
+        } else {
+            // Removed pairs stay in the filter until the next rebuild; they only cost a map lookup
+            blockedByBlocker.computeIfPresent(blockerId, (id, blocked) -> withoutBlocked(blocked, blockedId));
+        }
+    }
+
+    /**
+     * Replaces the filter with one sized for twice the current number of blocks, so it
+     * absorbs new blocks until the next reload. Must be called holding the lock.
+     */
+    private void rebuildFilter(long blocks) {
+        long capacity = Math.max(blocks * 2, minCapacity);
+        BloomFilter rebuilt = new BloomFilter(capacity, falsePositiveRate);
+        long inserted = 0;
+        for (Map.Entry<UUID, long[]> entry : blockedByBlocker.entrySet()) {
+            long[] blocked = entry.getValue();
+            for (int i = 0; i < blocked.length; i += 2) {
+                rebuilt.add(pairKey(entry.getKey(), blocked[i], blocked[i + 1]));
+                inserted++;
+            }
+        }
+        filter = rebuilt;
+        filterCapacity = capacity;
+        filterInsertions = inserted;
+    }
+
+    private static long pairKey(UUID blockerId, UUID blockedId) {
+        return pairKey(blockerId, blockedId.getMostSignificantBits(), blockedId.getLeastSignificantBits());
+    }
+
+    private static long pairKey(UUID blockerId, long blockedMost, long blockedLeast) {
+        long key = BloomFilter.mix(blockerId.getMostSignificantBits());
+        key = BloomFilter.mix(key ^ blockerId.getLeastSignificantBits());
+        key = BloomFilter.mix(key ^ blockedMost);
+        return BloomFilter.mix(key ^ blockedLeast);
+    }
+
+    private static long[] toSortedBits(List<UUID> ids) {
+        UUID[] sorted = ids.stream().distinct().sorted().toArray(UUID[]::new);
+        long[] bits = new long[sorted.length * 2];
+        for (int i = 0; i < sorted.length; i++) {
+            bits[2 * i] = sorted[i].getMostSignificantBits();
+            bits[2 * i + 1] = sorted[i].getLeastSignificantBits();
+        }
+        return bits;
+    }
+
+    /**
+     * Binary search over the pairs, ordered like {@link UUID#compareTo}.
+     *
+     * @return pair index of the id, or (-(insertion point) - 1) if absent
+     */
+    private static int indexOf(long[] bits, UUID id) {
+        long most = id.getMostSignificantBits();
+        long least = id.getLeastSignificantBits();
+        int low = 0;
+        int high = bits.length / 2 - 1;
+        while (low <= high) {
+            int mid = (low + high) >>> 1;
+            int cmp = Long.compare(bits[2 * mid], most);
+            if (cmp == 0) {
+                cmp = Long.compare(bits[2 * mid + 1], least);
+            }
+            if (cmp < 0) {
+                low = mid + 1;
+            } else if (cmp > 0) {
+                high = mid - 1;
+            } else {
+                return mid;
+            }
+        }
+        return -(low + 1);
+    }
+
+    private static long[] withBlocked(long[] blocked, UUID id) {
+        long[] current = blocked == null ? EMPTY : blocked;
+        int index = indexOf(current, id);
+        if (index >= 0) {
+            return current;
+        }
+        int at = 2 * (-index - 1);
+        long[] updated = new long[current.length + 2];
+        System.arraycopy(current, 0, updated, 0, at);
+        updated[at] = id.getMostSignificantBits();
+        updated[at + 1] = id.getLeastSignificantBits();
+        System.arraycopy(current, at, updated, at + 2, current.length - at);
+        return updated;
+    }
+
+    private static long[] withoutBlocked(long[] blocked, UUID id) {
+        int index = indexOf(blocked, id);
+        if (index < 0) {
+            return blocked;
+        }
+        if (blocked.length == 2) {
+            return null;
+        }
+        int at = 2 * index;
+        long[] updated = Arrays.copyOf(blocked, blocked.length - 2);
+        System.arraycopy(blocked, at + 2, updated, at, blocked.length - at - 2);
+        return updated;
+    }
+}
@@ -0,0 +1,106 @@
+package com.yasar.listigo.demo.cache;
+
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.yasar.listigo.demo.config.CacheConfig;
+import com.yasar.listigo.demo.dto.ListingDTO;
+import com.yasar.listigo.demo.event.ListingChangedEvent;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Duration;
+import java.util.concurrent.ConcurrentMap;
+import java.util.function.Supplier;
+
+/**
+ * Listing detail DTOs by listing ID, in the "listings" cache. Entries are evicted once a
+ * change to the listing has been committed.
+ * <p>
+ * Eviction alone cannot stop a read that loaded the listing before the commit from filling
+ * the cache with the old state afterwards. So each commit also records the lowest version
+ * a fill may have from then on, and a fill below it is removed again. The fill writes the
+ * entry before checking the recorded version, and the commit records the version before
+ * evicting. Whichever order they run in, a stale entry is removed by one of them.
+ * <p>
+ * Recorded versions are kept for {@code listing.cache.committed-version-retention-ms}. A
+ * read that started before a commit and fills the cache later than that can still leave
+ * the old state cached until the entry expires.
+ */
+@Slf4j
+@Component
+public class ListingDetailCache {
+
+    private final Cache listingCache;
+    private final ConcurrentMap<Object, Object> entries;
+    private final ConcurrentMap<Long, Long> minimumVersions;
+    private final Counter invalidations;
+    private final Counter rejectedFills;
+
+    @SuppressWarnings("unchecked")
+    public ListingDetailCache(CacheManager cacheManager, MeterRegistry meterRegistry,
+                              @Value("${listing.cache.committed-version-retention-ms}") long retentionMs,
+                              @Value("${listing.cache.committed-version-max-size}") long maxSize) {
+        this.listingCache = cacheManager.getCache(CacheConfig.LISTING_CACHE);
+        this.entries = ((com.github.benmanes.caffeine.cache.Cache<Object, Object>) listingCache.getNativeCache())
+                .asMap();
+        this.minimumVersions = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(Duration.ofMillis(retentionMs))
+                .<Long, Long>build()
+                .asMap();
+        this.invalidations = Counter.builder("listing.cache.invalidations")
+                .description("Listing detail cache entries evicted because the listing changed")
+                .register(meterRegistry);
+        this.rejectedFills = Counter.builder("listing.cache.rejected.fills")
+                .description("Listing detail cache fills removed for holding a state older than a committed change")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Returns the cached listing, or loads it and caches the result unless a newer version
+     * has been committed since the load started.
+     *
+     * @param listingId ID of the listing
+     * @param loader    reads the listing when it is not cached
+     * @return the cached or loaded listing
+     */
+    public ListingDTO get(Long listingId, Supplier<ListingDTO> loader) {
+        ListingDTO cached = listingCache.get(listingId, ListingDTO.class);
+        if (cached != null) {
+            return cached;
+        }
+
+        ListingDTO loaded = loader.get();
+        listingCache.put(listingId, loaded);
+        Long minimumVersion = minimumVersions.get(listingId);
+        if (minimumVersion != null && (loaded.getVersion() == null || loaded.getVersion() < minimumVersion)
+                && entries.remove(listingId, loaded)) {
+            rejectedFills.increment();
+            log.debug("Rejected stale cache fill of listing {} at version {}", listingId, loaded.getVersion());
+        }
+        return loaded;
+    }
+
+    @TransactionalEventListener
+    public void onListingChanged(ListingChangedEvent event) {
+        ListingDTO previous = event.getPrevious();
+        if (previous == null) {
+            return;
+        }
+        // Any state read before this change is at most the previous version; after a delete
+        // no state may be cached at all
+        long minimumVersion = event.isDeleted() || previous.getVersion() == null
+                ? Long.MAX_VALUE
+                : previous.getVersion() + 1;
+        minimumVersions.merge(event.getListingId(), minimumVersion, Math::max);
+        if (listingCache.evictIfPresent(event.getListingId())) {
+            invalidations.increment();
+            log.debug("Evicted listing {} from the detail cache", event.getListingId());
+        }
+    }
+}
@@ -0,0 +1,15 @@
+package com.yasar.listigo.demo.config;
+
+import org.springframework.cache.annotation.EnableCaching;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Caches are backed by Caffeine and declared in application.properties so that the
+ * actuator binds their hit, miss and eviction metrics at startup.
+ */
+@Configuration
+@EnableCaching
+public class CacheConfig {
+
+    public static final String LISTING_CACHE = "listings";
+}
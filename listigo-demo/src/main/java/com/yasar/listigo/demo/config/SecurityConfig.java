@@ -1,9 +1,12 @@
 package com.yasar.listigo.demo.config;
 
 import com.yasar.listigo.demo.security.JwtAuthenticationFilter;
+import jakarta.servlet.DispatcherType;
 import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.http.HttpMethod;
 import org.springframework.security.config.annotation.method.configuration.EnableMethodSecurity;
 import org.springframework.security.config.annotation.web.builders.HttpSecurity;
 import org.springframework.security.config.annotation.web.configuration.EnableWebSecurity;
@@ -28,6 +31,10 @@ public class SecurityConfig {
                 .csrf(AbstractHttpConfigurer::disable)
                 .sessionManagement(session -> session.sessionCreationPolicy(SessionCreationPolicy.STATELESS))
                 .authorizeHttpRequests(auth -> auth
+                        .dispatcherTypeMatchers(DispatcherType.ASYNC).permitAll()
+                        .requestMatchers("/api/v1/listings/export").authenticated()
+                        .requestMatchers(HttpMethod.POST, "/api/v1/listings/bulk").authenticated()
+                        .requestMatchers(HttpMethod.POST, "/api/v1/listings/import").authenticated()
                         .requestMatchers(
                                 "/swagger-ui/**",
                                 "/v3/api-docs/**",
@@ -37,6 +44,12 @@ public class SecurityConfig {
                                 "/api/v1/auth/register",
                                 "/api/v1/categories",
                                 "/api/v1/listings/all",
+                                "/api/v1/listings/all/summary",
+                                "/api/v1/listings/batch",
+                                "/api/v1/listings/filter/summary",
+                                "/api/v1/listings/filter/facets",
+                                "/api/v1/listings/search",
+                                "/api/v1/listings/search/instant",
                                 "/api/v1/listings/{listingId}"
                         ).permitAll()
                         .requestMatchers("/api/v1/categories/**").hasRole("ADMIN")
@@ -48,7 +61,7 @@ public class SecurityConfig {
     }
 
     @Bean
-    public PasswordEncoder passwordEncoder() {
-        return new BCryptPasswordEncoder();
+    public PasswordEncoder passwordEncoder(@Value("${security.password-hashing.bcrypt-strength}") int strength) {
+        return new BCryptPasswordEncoder(strength);
     }
 }
\ No newline at end of file
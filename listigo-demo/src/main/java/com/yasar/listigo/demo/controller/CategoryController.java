@@ -1,6 +1,7 @@
 package com.yasar.listigo.demo.controller;
 
 import com.yasar.listigo.demo.dto.CategoryDTO;
+import com.yasar.listigo.demo.dto.ResourceVersionDTO;
 import com.yasar.listigo.demo.service.CategoryService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.media.Content;
@@ -20,6 +21,7 @@ import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.WebRequest;
 
 import java.util.List;
 
@@ -90,10 +92,15 @@ public class CategoryController {
             responses = {
                     @ApiResponse(description = "Category retrieved successfully", responseCode = "200",
                             content = @Content(schema = @Schema(implementation = CategoryDTO.class))),
+                    @ApiResponse(description = "Category not modified since the given ETag or date", responseCode = "304"),
                     @ApiResponse(description = "Category not found", responseCode = "404")
             }
     )
-    public ResponseEntity<CategoryDTO> getCategoryById(@PathVariable Long categoryId) {
+    public ResponseEntity<CategoryDTO> getCategoryById(@PathVariable Long categoryId, WebRequest request) {
+        ResourceVersionDTO version = categoryService.getCategoryVersion(categoryId);
+        if (request.checkNotModified(version.getETag(), version.lastModifiedMillis())) {
+            return null;
+        }
         CategoryDTO category = categoryService.getCategoryById(categoryId);
         return ResponseEntity.ok(category);
     }
@@ -104,10 +111,15 @@ public class CategoryController {
             responses = {
                     @ApiResponse(description = "Categories retrieved successfully", responseCode = "200",
                             content = @Content(schema = @Schema(implementation = CategoryDTO.class))),
+                    @ApiResponse(description = "Categories not modified since the given ETag or date", responseCode = "304"),
                     @ApiResponse(description = "No categories found", responseCode = "404")
             }
     )
-    public ResponseEntity<List<CategoryDTO>> getAllCategories() {
+    public ResponseEntity<List<CategoryDTO>> getAllCategories(WebRequest request) {
+        ResourceVersionDTO version = categoryService.getAllCategoriesVersion();
+        if (request.checkNotModified(version.getETag(), version.lastModifiedMillis())) {
+            return null;
+        }
         List<CategoryDTO> categories = categoryService.getAllCategories();
         return ResponseEntity.ok(categories);
     }
@@ -0,0 +1,72 @@
+package com.yasar.listigo.demo.controller;
+
+import com.yasar.listigo.demo.dto.ConversationDTO;
+import com.yasar.listigo.demo.dto.ConversationPageDTO;
+import com.yasar.listigo.demo.dto.UnreadCountDTO;
+import com.yasar.listigo.demo.service.MessageService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.headers.Header;
+import io.swagger.v3.oas.annotations.media.Content;
+import io.swagger.v3.oas.annotations.media.Schema;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.List;
+import java.util.UUID;
+
+@RestController
+@RequiredArgsConstructor
+@RequestMapping("${api.version}/conversations")
+@Tag(name = "Conversation Controller", description = "Endpoints for listing the conversations of a user")
+public class ConversationController {
+
+    private static final String NEXT_CURSOR_HEADER = "X-Next-Cursor";
+
+    private final MessageService messageService;
+
+    @GetMapping
+    @Operation(
+            description = "Retrieves a page of the authenticated user's conversations, the one with the latest " +
+                    "message first, with the last message and the user's unread count of each. " +
+                    "Pass the X-Next-Cursor response header back as cursor to fetch the next page.",
+            responses = {
+                    @ApiResponse(description = "Conversations retrieved successfully", responseCode = "200",
+                            content = @Content(schema = @Schema(implementation = ConversationDTO.class)),
+                            headers = @Header(name = NEXT_CURSOR_HEADER, description = "Cursor of the next page, absent on the last page")),
+                    @ApiResponse(description = "Bad request", responseCode = "400"),
+                    @ApiResponse(description = "Unauthorized", responseCode = "401")
+            }
+    )
+    public ResponseEntity<List<ConversationDTO>> getInbox(
+            @AuthenticationPrincipal UUID userId,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer size) {
+        ConversationPageDTO page = messageService.getInbox(userId, cursor, size);
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok();
+        if (page.getNextCursor() != null) {
+            response.header(NEXT_CURSOR_HEADER, page.getNextCursor());
+        }
+        return response.body(page.getConversations());
+    }
+
+    @GetMapping("/unread-count")
+    @Operation(
+            description = "Retrieves the number of unread messages sent to the authenticated user, for the unread badge",
+            responses = {
+                    @ApiResponse(description = "Unread count retrieved successfully", responseCode = "200",
+                            content = @Content(schema = @Schema(implementation = UnreadCountDTO.class))),
+                    @ApiResponse(description = "Unauthorized", responseCode = "401")
+            }
+    )
+    public ResponseEntity<UnreadCountDTO> getUnreadCount(@AuthenticationPrincipal UUID userId) {
+        UnreadCountDTO unreadCount = messageService.getUnreadCount(userId);
+        return ResponseEntity.ok(unreadCount);
+    }
+}
@@ -6,18 +6,24 @@ import com.yasar.listigo.demo.exception.CategoryNotDeletedException;
 import com.yasar.listigo.demo.exception.CategoryNotFoundException;
 import com.yasar.listigo.demo.exception.CategoryNotUpdatedException;
 import com.yasar.listigo.demo.exception.ErrorResponse;
+import com.yasar.listigo.demo.exception.IndexNotReadyException;
 import com.yasar.listigo.demo.exception.InternalServerException;
 import com.yasar.listigo.demo.exception.InvalidPasswordException;
 import com.yasar.listigo.demo.exception.JwtTokenExpiredException;
 import com.yasar.listigo.demo.exception.JwtTokenGenerationException;
 import com.yasar.listigo.demo.exception.JwtTokenInvalidException;
+import com.yasar.listigo.demo.exception.ListingImportNotFoundException;
+import com.yasar.listigo.demo.exception.ListingImportRejectedException;
+import com.yasar.listigo.demo.exception.ListingImportTooLargeException;
 import com.yasar.listigo.demo.exception.ListingNotCreatedException;
 import com.yasar.listigo.demo.exception.ListingNotDeletedException;
 import com.yasar.listigo.demo.exception.ListingNotFoundException;
 import com.yasar.listigo.demo.exception.ListingNotUpdatedException;
+import com.yasar.listigo.demo.exception.LoginThrottledException;
 import com.yasar.listigo.demo.exception.MessageNotDeletedException;
 import com.yasar.listigo.demo.exception.MessageNotFoundException;
 import com.yasar.listigo.demo.exception.MessageNotSentException;
+import com.yasar.listigo.demo.exception.PasswordHashingRejectedException;
 import com.yasar.listigo.demo.exception.PasswordsDoNotMatchException;
 import com.yasar.listigo.demo.exception.PhotoNotFoundException;
 import com.yasar.listigo.demo.exception.PhotoUploadException;
@@ -26,6 +32,7 @@ import com.yasar.listigo.demo.exception.UserBlockedException;
 import com.yasar.listigo.demo.exception.UserNotFoundException;
 import com.yasar.listigo.demo.exception.UserNotRegisteredException;
 import com.yasar.listigo.demo.exception.UserProfileNotUpdatedException;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.MethodArgumentNotValidException;
@@ -33,6 +40,7 @@ import org.springframework.web.bind.annotation.ExceptionHandler;
 import org.springframework.web.bind.annotation.ResponseBody;
 import org.springframework.web.bind.annotation.ResponseStatus;
 import org.springframework.web.bind.annotation.RestControllerAdvice;
+import org.springframework.web.method.annotation.MethodArgumentTypeMismatchException;
 
 import java.io.IOException;
 import java.util.List;
@@ -213,6 +221,16 @@ public class GlobalExceptionHandler {
         return new ResponseEntity<>(errorResponse, HttpStatus.BAD_REQUEST);
     }
 
+    @ExceptionHandler(MethodArgumentTypeMismatchException.class)
+    @ResponseStatus(HttpStatus.BAD_REQUEST)
+    @ResponseBody
+    public ResponseEntity<ErrorResponse> handleMethodArgumentTypeMismatchException(MethodArgumentTypeMismatchException ex) {
+        ErrorResponse errorResponse = new ErrorResponse();
+        errorResponse.setStatusCode(HttpStatus.BAD_REQUEST.value());
+        errorResponse.setMessage("Invalid value for parameter '" + ex.getName() + "': " + ex.getValue());
+        return new ResponseEntity<>(errorResponse, HttpStatus.BAD_REQUEST);
+    }
+
     @ExceptionHandler(IOException.class)
     @ResponseStatus(HttpStatus.INTERNAL_SERVER_ERROR)
     @ResponseBody
@@ -332,4 +350,68 @@ public class GlobalExceptionHandler {
         errorResponse.setMessage(ex.getMessage());
         return new ResponseEntity<>(errorResponse, HttpStatus.BAD_REQUEST);
     }
-}
\ No newline at end of file
+
+    @ExceptionHandler(IndexNotReadyException.class)
+    @ResponseStatus(HttpStatus.SERVICE_UNAVAILABLE)
+    @ResponseBody
+    public ResponseEntity<ErrorResponse> handleIndexNotReadyException(IndexNotReadyException ex) {
+        ErrorResponse errorResponse = new ErrorResponse();
+        errorResponse.setStatusCode(HttpStatus.SERVICE_UNAVAILABLE.value());
+        errorResponse.setMessage(ex.getMessage());
+        return new ResponseEntity<>(errorResponse, HttpStatus.SERVICE_UNAVAILABLE);
+    }
+
+    @ExceptionHandler(ListingImportNotFoundException.class)
+    @ResponseStatus(HttpStatus.NOT_FOUND)
+    @ResponseBody
+    public ResponseEntity<ErrorResponse> handleListingImportNotFoundException(ListingImportNotFoundException ex) {
+        ErrorResponse errorResponse = new ErrorResponse();
+        errorResponse.setStatusCode(HttpStatus.NOT_FOUND.value());
+        errorResponse.setMessage(ex.getMessage());
+        return new ResponseEntity<>(errorResponse, HttpStatus.NOT_FOUND);
+    }
+
+    @ExceptionHandler(ListingImportTooLargeException.class)
+    @ResponseStatus(HttpStatus.PAYLOAD_TOO_LARGE)
+    @ResponseBody
+    public ResponseEntity<ErrorResponse> handleListingImportTooLargeException(ListingImportTooLargeException ex) {
+        ErrorResponse errorResponse = new ErrorResponse();
+        errorResponse.setStatusCode(HttpStatus.PAYLOAD_TOO_LARGE.value());
+        errorResponse.setMessage(ex.getMessage());
+        return new ResponseEntity<>(errorResponse, HttpStatus.PAYLOAD_TOO_LARGE);
+    }
+
+    @ExceptionHandler(ListingImportRejectedException.class)
+    @ResponseStatus(HttpStatus.SERVICE_UNAVAILABLE)
+    @ResponseBody
+    public ResponseEntity<ErrorResponse> handleListingImportRejectedException(ListingImportRejectedException ex) {
+        ErrorResponse errorResponse = new ErrorResponse();
+        errorResponse.setStatusCode(HttpStatus.SERVICE_UNAVAILABLE.value());
+        errorResponse.setMessage(ex.getMessage());
+        return new ResponseEntity<>(errorResponse, HttpStatus.SERVICE_UNAVAILABLE);
+    }
+
+    @ExceptionHandler(PasswordHashingRejectedException.class)
+    @ResponseStatus(HttpStatus.SERVICE_UNAVAILABLE)
+    @ResponseBody
+    public ResponseEntity<ErrorResponse> handlePasswordHashingRejectedException(PasswordHashingRejectedException ex) {
+        ErrorResponse errorResponse = new ErrorResponse();
+        errorResponse.setStatusCode(HttpStatus.SERVICE_UNAVAILABLE.value());
+        errorResponse.setMessage(ex.getMessage());
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                .header(HttpHeaders.RETRY_AFTER, String.valueOf(ex.getRetryAfterSeconds()))
+                .body(errorResponse);
+    }
+
+    @ExceptionHandler(LoginThrottledException.class)
+    @ResponseStatus(HttpStatus.TOO_MANY_REQUESTS)
+    @ResponseBody
+    public ResponseEntity<ErrorResponse> handleLoginThrottledException(LoginThrottledException ex) {
+        ErrorResponse errorResponse = new ErrorResponse();
+        errorResponse.setStatusCode(HttpStatus.TOO_MANY_REQUESTS.value());
+        errorResponse.setMessage(ex.getMessage());
+        return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS)
+                .header(HttpHeaders.RETRY_AFTER, String.valueOf(ex.getRetryAfterSeconds()))
+                .body(errorResponse);
+    }
+}
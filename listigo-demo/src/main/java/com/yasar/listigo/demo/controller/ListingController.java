@@ -1,16 +1,35 @@
 package com.yasar.listigo.demo.controller;
 
+import com.yasar.listigo.demo.dto.AutocompleteField;
+import com.yasar.listigo.demo.dto.FacetCountDTO;
+import com.yasar.listigo.demo.dto.ListingBatchDTO;
+import com.yasar.listigo.demo.dto.ListingBatchRequest;
+import com.yasar.listigo.demo.dto.ListingBulkRequest;
+import com.yasar.listigo.demo.dto.ListingBulkResultDTO;
 import com.yasar.listigo.demo.dto.ListingDTO;
+import com.yasar.listigo.demo.dto.ListingFacetsDTO;
 import com.yasar.listigo.demo.dto.ListingFilterDTO;
+import com.yasar.listigo.demo.dto.ListingImportFormat;
+import com.yasar.listigo.demo.dto.ListingImportStatusDTO;
+import com.yasar.listigo.demo.dto.ListingPageDTO;
+import com.yasar.listigo.demo.dto.ListingSearchResultDTO;
+import com.yasar.listigo.demo.dto.ListingSort;
+import com.yasar.listigo.demo.dto.ListingSummaryDTO;
+import com.yasar.listigo.demo.dto.ResourceVersionDTO;
+import com.yasar.listigo.demo.service.ListingImportService;
 import com.yasar.listigo.demo.service.ListingService;
 import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.headers.Header;
 import io.swagger.v3.oas.annotations.media.Content;
 import io.swagger.v3.oas.annotations.media.Schema;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.servlet.http.HttpServletRequest;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.web.bind.annotation.DeleteMapping;
@@ -19,12 +38,19 @@ import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
 
+import java.io.IOException;
+import java.net.URI;
 import java.util.List;
 import java.util.UUID;
+import java.util.zip.GZIPOutputStream;
 
 @RestController
 @RequiredArgsConstructor
@@ -32,7 +58,11 @@ import java.util.UUID;
 @Tag(name = "Listing Controller", description = "Endpoints for managing listings")
 public class ListingController {
 
+    private static final String NEXT_CURSOR_HEADER = "X-Next-Cursor";
+    private static final MediaType NDJSON = MediaType.parseMediaType("application/x-ndjson");
+
     private final ListingService listingService;
+    private final ListingImportService listingImportService;
 
     @PostMapping
     @Operation(
@@ -52,6 +82,73 @@ public class ListingController {
         return new ResponseEntity<>(createdListing, HttpStatus.CREATED);
     }
 
+    @PostMapping("/bulk")
+    @Operation(
+            description = "Creates up to 5000 listings for the authenticated user. Every listing is validated " +
+                    "on its own and the result of each is reported in request order.",
+            responses = {
+                    @ApiResponse(description = "Listings processed", responseCode = "200",
+                            content = @Content(schema = @Schema(implementation = ListingBulkResultDTO.class))),
+                    @ApiResponse(description = "Bad request", responseCode = "400"),
+                    @ApiResponse(description = "Unauthorized", responseCode = "401"),
+                    @ApiResponse(description = "User not found", responseCode = "404")
+            }
+    )
+    public ResponseEntity<ListingBulkResultDTO> bulkCreateListings(
+            @AuthenticationPrincipal UUID userId,
+            @Valid @RequestBody ListingBulkRequest request) {
+        ListingBulkResultDTO result = listingService.bulkCreateListings(userId, request.getListings());
+        return ResponseEntity.ok(result);
+    }
+
+    @PostMapping(value = "/import",
+            consumes = {"text/csv", "application/x-ndjson", MediaType.APPLICATION_OCTET_STREAM_VALUE})
+    @Operation(
+            description = "Starts importing a CSV or NDJSON listing feed, sent as the raw request body, for the " +
+                    "authenticated user. CSV feeds need a header row naming the listing fields, with photo URLs " +
+                    "separated by '|'. Unless given, the format is inferred from the content type, then from the " +
+                    "file name extension. Poll the returned job for progress.",
+            responses = {
+                    @ApiResponse(description = "Import started", responseCode = "202",
+                            content = @Content(schema = @Schema(implementation = ListingImportStatusDTO.class))),
+                    @ApiResponse(description = "Bad request", responseCode = "400"),
+                    @ApiResponse(description = "Unauthorized", responseCode = "401"),
+                    @ApiResponse(description = "User not found", responseCode = "404"),
+                    @ApiResponse(description = "Feed too large", responseCode = "413"),
+                    @ApiResponse(description = "Too many imports running", responseCode = "503")
+            }
+    )
+    public ResponseEntity<ListingImportStatusDTO> importListings(
+            @AuthenticationPrincipal UUID userId,
+            HttpServletRequest request,
+            @RequestParam(required = false) String fileName,
+            @RequestParam(required = false) ListingImportFormat format) throws IOException {
+        ListingImportStatusDTO status = listingImportService.startImport(userId, request.getInputStream(),
+                request.getContentLengthLong(), request.getContentType(), fileName, format);
+        URI location = ServletUriComponentsBuilder.fromCurrentRequest()
+                .path("/{jobId}")
+                .buildAndExpand(status.getJobId())
+                .toUri();
+        return ResponseEntity.accepted().location(location).body(status);
+    }
+
+    @GetMapping("/import/{jobId}")
+    @Operation(
+            description = "Retrieves the progress, throughput and row errors of an import job of the authenticated user",
+            responses = {
+                    @ApiResponse(description = "Import status retrieved successfully", responseCode = "200",
+                            content = @Content(schema = @Schema(implementation = ListingImportStatusDTO.class))),
+                    @ApiResponse(description = "Unauthorized", responseCode = "401"),
+                    @ApiResponse(description = "Import job not found", responseCode = "404")
+            }
+    )
+    public ResponseEntity<ListingImportStatusDTO> getImportStatus(
+            @AuthenticationPrincipal UUID userId,
+            @PathVariable UUID jobId) {
+        ListingImportStatusDTO status = listingImportService.getImportStatus(userId, jobId);
+        return ResponseEntity.ok(status);
+    }
+
     @PutMapping("/{listingId}")
     @Operation(
             description = "Updates an existing listing for the authenticated user",
@@ -89,18 +186,47 @@ public class ListingController {
 
     @GetMapping("/my-listings")
     @Operation(
-            description = "Retrieves all listings for the authenticated user",
+            description = "Retrieves a page of listings for the authenticated user. " +
+                    "Pass the X-Next-Cursor response header back as cursor to fetch the next page.",
             responses = {
                     @ApiResponse(description = "Listings retrieved successfully", responseCode = "200",
-                            content = @Content(schema = @Schema(implementation = ListingDTO.class))),
+                            content = @Content(schema = @Schema(implementation = ListingDTO.class)),
+                            headers = @Header(name = NEXT_CURSOR_HEADER, description = "Cursor of the next page, absent on the last page")),
+                    @ApiResponse(description = "Bad request", responseCode = "400"),
                     @ApiResponse(description = "Unauthorized", responseCode = "401"),
                     @ApiResponse(description = "No listings found for user", responseCode = "404")
             }
     )
     public ResponseEntity<List<ListingDTO>> getUserListings(
-            @AuthenticationPrincipal UUID userId) {
-        List<ListingDTO> listings = listingService.getUserListings(userId);
-        return ResponseEntity.ok(listings);
+            @AuthenticationPrincipal UUID userId,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer size,
+            @RequestParam(defaultValue = "NEWEST") ListingSort sort) {
+        ListingPageDTO<ListingDTO> page = listingService.getUserListings(userId, cursor, size, sort);
+        return toPageResponse(page);
+    }
+
+    @GetMapping("/my-listings/summary")
+    @Operation(
+            description = "Retrieves a page of listing summaries for the authenticated user. Summaries leave out " +
+                    "the description and carry only the first photo. " +
+                    "Pass the X-Next-Cursor response header back as cursor to fetch the next page.",
+            responses = {
+                    @ApiResponse(description = "Listings retrieved successfully", responseCode = "200",
+                            content = @Content(schema = @Schema(implementation = ListingSummaryDTO.class)),
+                            headers = @Header(name = NEXT_CURSOR_HEADER, description = "Cursor of the next page, absent on the last page")),
+                    @ApiResponse(description = "Bad request", responseCode = "400"),
+                    @ApiResponse(description = "Unauthorized", responseCode = "401"),
+                    @ApiResponse(description = "No listings found for user", responseCode = "404")
+            }
+    )
+    public ResponseEntity<List<ListingSummaryDTO>> getUserListingSummaries(
+            @AuthenticationPrincipal UUID userId,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer size,
+            @RequestParam(defaultValue = "NEWEST") ListingSort sort) {
+        ListingPageDTO<ListingSummaryDTO> page = listingService.getUserListingSummaries(userId, cursor, size, sort);
+        return toPageResponse(page);
     }
 
     @GetMapping("/{listingId}")
@@ -109,42 +235,219 @@ public class ListingController {
             responses = {
                     @ApiResponse(description = "Listing retrieved successfully", responseCode = "200",
                             content = @Content(schema = @Schema(implementation = ListingDTO.class))),
+                    @ApiResponse(description = "Listing not modified since the given ETag or date", responseCode = "304"),
                     @ApiResponse(description = "Listing not found", responseCode = "404")
             }
     )
     public ResponseEntity<ListingDTO> getListingById(
-            @PathVariable Long listingId) {
+            @PathVariable Long listingId,
+            WebRequest request) {
+        ResourceVersionDTO current = listingService.getListingVersion(listingId);
+        if (request.checkNotModified(current.getETag(), current.lastModifiedMillis())) {
+            return null;
+        }
+        // The body may come from the cache, so its validators are taken from the body itself
         ListingDTO listing = listingService.getListingById(listingId);
-        return ResponseEntity.ok(listing);
+        ResourceVersionDTO served = listingService.getListingVersion(listing);
+        return ResponseEntity.ok()
+                .eTag(served.getETag())
+                .lastModified(served.lastModifiedMillis())
+                .body(listing);
+    }
+
+    @PostMapping("/batch")
+    @Operation(
+            description = "Retrieves up to 100 listings by ID in one request. Listings are returned in the " +
+                    "requested order; IDs that do not exist are reported in missingIds.",
+            responses = {
+                    @ApiResponse(description = "Listings retrieved successfully", responseCode = "200",
+                            content = @Content(schema = @Schema(implementation = ListingBatchDTO.class))),
+                    @ApiResponse(description = "Bad request", responseCode = "400")
+            }
+    )
+    public ResponseEntity<ListingBatchDTO> getListingsByIds(@Valid @RequestBody ListingBatchRequest request) {
+        ListingBatchDTO batch = listingService.getListingsByIds(request.getListingIds());
+        return ResponseEntity.ok(batch);
     }
 
     @GetMapping("/all")
     @Operation(
-            description = "Retrieves all listings",
+            description = "Retrieves a page of all listings. " +
+                    "Pass the X-Next-Cursor response header back as cursor to fetch the next page.",
             responses = {
                     @ApiResponse(description = "Listings retrieved successfully", responseCode = "200",
-                            content = @Content(schema = @Schema(implementation = ListingDTO.class))),
+                            content = @Content(schema = @Schema(implementation = ListingDTO.class)),
+                            headers = @Header(name = NEXT_CURSOR_HEADER, description = "Cursor of the next page, absent on the last page")),
+                    @ApiResponse(description = "Bad request", responseCode = "400"),
                     @ApiResponse(description = "No listings found", responseCode = "404")
             }
     )
-    public ResponseEntity<List<ListingDTO>> getAllListings() {
-        List<ListingDTO> listings = listingService.getAllListings();
-        return ResponseEntity.ok(listings);
+    public ResponseEntity<List<ListingDTO>> getAllListings(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer size,
+            @RequestParam(defaultValue = "NEWEST") ListingSort sort) {
+        ListingPageDTO<ListingDTO> page = listingService.getAllListings(cursor, size, sort);
+        return toPageResponse(page);
+    }
+
+    @GetMapping("/all/summary")
+    @Operation(
+            description = "Retrieves a page of listing summaries. Summaries leave out the description and carry " +
+                    "only the first photo. Pass the X-Next-Cursor response header back as cursor to fetch the next page.",
+            responses = {
+                    @ApiResponse(description = "Listings retrieved successfully", responseCode = "200",
+                            content = @Content(schema = @Schema(implementation = ListingSummaryDTO.class)),
+                            headers = @Header(name = NEXT_CURSOR_HEADER, description = "Cursor of the next page, absent on the last page")),
+                    @ApiResponse(description = "Bad request", responseCode = "400"),
+                    @ApiResponse(description = "No listings found", responseCode = "404")
+            }
+    )
+    public ResponseEntity<List<ListingSummaryDTO>> getAllListingSummaries(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer size,
+            @RequestParam(defaultValue = "NEWEST") ListingSort sort) {
+        ListingPageDTO<ListingSummaryDTO> page = listingService.getAllListingSummaries(cursor, size, sort);
+        return toPageResponse(page);
+    }
+
+    @GetMapping(value = "/export", produces = "application/x-ndjson")
+    @Operation(
+            description = "Streams every listing as newline-delimited JSON. " +
+                    "The response is gzip-encoded when the client sends Accept-Encoding: gzip.",
+            responses = {
+                    @ApiResponse(description = "Listings streamed successfully", responseCode = "200"),
+                    @ApiResponse(description = "Unauthorized", responseCode = "401")
+            }
+    )
+    public ResponseEntity<StreamingResponseBody> exportListings(
+            @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding) {
+        boolean gzip = acceptEncoding != null && acceptEncoding.toLowerCase().contains("gzip");
+        StreamingResponseBody body = outputStream -> {
+            if (gzip) {
+                GZIPOutputStream gzipStream = new GZIPOutputStream(outputStream, 8192);
+                listingService.exportListings(gzipStream);
+                gzipStream.finish();
+            } else {
+                listingService.exportListings(outputStream);
+            }
+        };
+
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok()
+                .contentType(NDJSON)
+                .header(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+        if (gzip) {
+            response.header(HttpHeaders.CONTENT_ENCODING, "gzip");
+        }
+        return response.body(body);
     }
 
     @PostMapping("/filter")
     @Operation(
-            description = "Retrieves listings based on filter criteria",
+            description = "Retrieves a page of listings based on filter criteria. " +
+                    "Pass the X-Next-Cursor response header back as cursor to fetch the next page.",
             responses = {
                     @ApiResponse(description = "Listings retrieved successfully", responseCode = "200",
-                            content = @Content(schema = @Schema(implementation = ListingDTO.class))),
+                            content = @Content(schema = @Schema(implementation = ListingDTO.class)),
+                            headers = @Header(name = NEXT_CURSOR_HEADER, description = "Cursor of the next page, absent on the last page")),
                     @ApiResponse(description = "Bad request", responseCode = "400")
             }
     )
     public ResponseEntity<List<ListingDTO>> getFilteredListings(
-            @Valid @RequestBody ListingFilterDTO filterDTO) {
-        List<ListingDTO> listings = listingService.getFilteredListings(filterDTO);
-        return ResponseEntity.ok(listings);
+            @Valid @RequestBody ListingFilterDTO filterDTO,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer size,
+            @RequestParam(defaultValue = "NEWEST") ListingSort sort) {
+        ListingPageDTO<ListingDTO> page = listingService.getFilteredListings(filterDTO, cursor, size, sort);
+        return toPageResponse(page);
+    }
+
+    @PostMapping("/filter/summary")
+    @Operation(
+            description = "Retrieves a page of listing summaries based on filter criteria. Summaries leave out " +
+                    "the description and carry only the first photo. " +
+                    "Pass the X-Next-Cursor response header back as cursor to fetch the next page.",
+            responses = {
+                    @ApiResponse(description = "Listings retrieved successfully", responseCode = "200",
+                            content = @Content(schema = @Schema(implementation = ListingSummaryDTO.class)),
+                            headers = @Header(name = NEXT_CURSOR_HEADER, description = "Cursor of the next page, absent on the last page")),
+                    @ApiResponse(description = "Bad request", responseCode = "400")
+            }
+    )
+    public ResponseEntity<List<ListingSummaryDTO>> getFilteredListingSummaries(
+            @Valid @RequestBody ListingFilterDTO filterDTO,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer size,
+            @RequestParam(defaultValue = "NEWEST") ListingSort sort) {
+        ListingPageDTO<ListingSummaryDTO> page = listingService.getFilteredListingSummaries(filterDTO, cursor, size, sort);
+        return toPageResponse(page);
+    }
+
+    @PostMapping("/filter/facets")
+    @Operation(
+            description = "Counts the listings matching the filter criteria per category, brand, model, " +
+                    "year range, price range and location.",
+            responses = {
+                    @ApiResponse(description = "Facet counts retrieved successfully", responseCode = "200",
+                            content = @Content(schema = @Schema(implementation = ListingFacetsDTO.class))),
+                    @ApiResponse(description = "Bad request", responseCode = "400"),
+                    @ApiResponse(description = "Facet index is still loading", responseCode = "503")
+            }
+    )
+    public ResponseEntity<ListingFacetsDTO> getListingFacets(@Valid @RequestBody ListingFilterDTO filterDTO) {
+        ListingFacetsDTO facets = listingService.getListingFacets(filterDTO);
+        return ResponseEntity.ok(facets);
+    }
+
+    @GetMapping("/autocomplete")
+    @Operation(
+            description = "Suggests brand, model or location values starting with the prefix, ignoring case. " +
+                    "Suggestions are ordered by the number of listings using them.",
+            responses = {
+                    @ApiResponse(description = "Suggestions retrieved successfully", responseCode = "200",
+                            content = @Content(schema = @Schema(implementation = FacetCountDTO.class))),
+                    @ApiResponse(description = "Bad request", responseCode = "400")
+            }
+    )
+    public ResponseEntity<List<FacetCountDTO>> autocomplete(
+            @RequestParam AutocompleteField field,
+            @RequestParam String prefix,
+            @RequestParam(required = false) Integer size) {
+        List<FacetCountDTO> suggestions = listingService.autocomplete(field, prefix, size);
+        return ResponseEntity.ok(suggestions);
+    }
+
+    @GetMapping("/search")
+    @Operation(
+            description = "Full-text searches listing titles and descriptions. Results are ranked by relevance " +
+                    "and include HTML-escaped snippets with matches in <mark> tags. Supports quoted phrases, OR and -exclusions.",
+            responses = {
+                    @ApiResponse(description = "Search results retrieved successfully", responseCode = "200",
+                            content = @Content(schema = @Schema(implementation = ListingSearchResultDTO.class))),
+                    @ApiResponse(description = "Bad request", responseCode = "400")
+            }
+    )
+    public ResponseEntity<List<ListingSearchResultDTO>> searchListings(
+            @RequestParam("q") String query,
+            @RequestParam(required = false) Integer size) {
+        List<ListingSearchResultDTO> results = listingService.searchListings(query, size);
+        return ResponseEntity.ok(results);
+    }
+
+    @GetMapping("/search/instant")
+    @Operation(
+            description = "Searches listings through the in-memory index. Every term must appear in the title, " +
+                    "description, brand, model or location; results are ranked by BM25 relevance.",
+            responses = {
+                    @ApiResponse(description = "Search results retrieved successfully", responseCode = "200",
+                            content = @Content(schema = @Schema(implementation = ListingSearchResultDTO.class))),
+                    @ApiResponse(description = "Bad request", responseCode = "400")
+            }
+    )
+    public ResponseEntity<List<ListingSearchResultDTO>> instantSearchListings(
+            @RequestParam("q") String query,
+            @RequestParam(required = false) Integer size) {
+        List<ListingSearchResultDTO> results = listingService.instantSearchListings(query, size);
+        return ResponseEntity.ok(results);
     }
 
     @PostMapping("/{listingId}/photos")
@@ -191,12 +494,26 @@ public class ListingController {
             responses = {
                     @ApiResponse(description = "Photo URLs retrieved successfully", responseCode = "200",
                             content = @Content(schema = @Schema(implementation = String.class))),
+                    @ApiResponse(description = "Listing not modified since the given ETag or date", responseCode = "304"),
                     @ApiResponse(description = "Listing not found", responseCode = "404")
             }
     )
     public ResponseEntity<List<String>> getListingPhotos(
-            @PathVariable Long listingId) {
+            @PathVariable Long listingId,
+            WebRequest request) {
+        ResourceVersionDTO version = listingService.getListingVersion(listingId);
+        if (request.checkNotModified(version.getETag(), version.lastModifiedMillis())) {
+            return null;
+        }
         List<String> photos = listingService.getListingPhotos(listingId);
         return ResponseEntity.ok(photos);
     }
+
+    private <T> ResponseEntity<List<T>> toPageResponse(ListingPageDTO<T> page) {
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok();
+        if (page.getNextCursor() != null) {
+            response.header(NEXT_CURSOR_HEADER, page.getNextCursor());
+        }
+        return response.body(page.getListings());
+    }
 }
\ No newline at end of file
@@ -1,8 +1,10 @@
 package com.yasar.listigo.demo.controller;
 
 import com.yasar.listigo.demo.dto.MessageDTO;
+import com.yasar.listigo.demo.dto.MessagePageDTO;
 import com.yasar.listigo.demo.service.MessageService;
 import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.headers.Header;
 import io.swagger.v3.oas.annotations.media.Content;
 import io.swagger.v3.oas.annotations.media.Schema;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
@@ -18,6 +20,7 @@ import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 
 import java.util.List;
@@ -29,6 +32,8 @@ import java.util.UUID;
 @Tag(name = "Message Controller", description = "Endpoints for managing messages related to listings")
 public class MessageController {
 
+    private static final String NEXT_CURSOR_HEADER = "X-Next-Cursor";
+
     private final MessageService messageService;
 
     @PostMapping
@@ -53,19 +58,29 @@ public class MessageController {
 
     @GetMapping
     @Operation(
-            description = "Retrieves all messages for a listing that the authenticated user is involved in.",
+            description = "Retrieves a page of the messages for a listing that the authenticated user is involved in, " +
+                    "oldest first, and marks the returned messages sent to the user read. " +
+                    "Pass the X-Next-Cursor response header back as cursor to fetch the next page.",
             responses = {
                     @ApiResponse(description = "Messages retrieved successfully", responseCode = "200",
-                            content = @Content(schema = @Schema(implementation = MessageDTO.class))),
+                            content = @Content(schema = @Schema(implementation = MessageDTO.class)),
+                            headers = @Header(name = NEXT_CURSOR_HEADER, description = "Cursor of the next page, absent on the last page")),
+                    @ApiResponse(description = "Bad request", responseCode = "400"),
                     @ApiResponse(description = "Unauthorized", responseCode = "401"),
                     @ApiResponse(description = "Listing or messages not found", responseCode = "404")
             }
     )
     public ResponseEntity<List<MessageDTO>> getMessagesByListingId(
             @AuthenticationPrincipal UUID userId,
-            @PathVariable Long listingId) {
-        List<MessageDTO> messages = messageService.getMessagesByListingId(userId, listingId);
-        return ResponseEntity.ok(messages);
+            @PathVariable Long listingId,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer size) {
+        MessagePageDTO page = messageService.getMessagesByListingId(userId, listingId, cursor, size);
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok();
+        if (page.getNextCursor() != null) {
+            response.header(NEXT_CURSOR_HEADER, page.getNextCursor());
+        }
+        return response.body(page.getMessages());
     }
 
     @DeleteMapping
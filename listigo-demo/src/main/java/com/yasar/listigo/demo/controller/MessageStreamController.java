@@ -0,0 +1,38 @@
+package com.yasar.listigo.demo.controller;
+
+import com.yasar.listigo.demo.realtime.MessageStreamHub;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.MediaType;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.util.UUID;
+
+@RestController
+@RequiredArgsConstructor
+@RequestMapping("${api.version}/messages")
+@Tag(name = "Message Stream Controller", description = "Endpoints for receiving messages in real time")
+public class MessageStreamController {
+
+    private final MessageStreamHub messageStreamHub;
+
+    @GetMapping(value = "/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    @Operation(
+            description = "Opens a server-sent event stream that delivers a 'message' event for every message " +
+                    "sent to the authenticated user. Clients that cannot set headers, such as EventSource, " +
+                    "may pass the JWT as the access_token query parameter instead.",
+            responses = {
+                    @ApiResponse(description = "Stream opened", responseCode = "200"),
+                    @ApiResponse(description = "Unauthorized", responseCode = "401")
+            }
+    )
+    public SseEmitter streamMessages(@AuthenticationPrincipal UUID userId) {
+        return messageStreamHub.connect(userId);
+    }
+}
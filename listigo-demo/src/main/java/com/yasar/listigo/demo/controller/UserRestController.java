@@ -4,12 +4,14 @@ import com.yasar.listigo.demo.converter.UserDtoConverter;
 import com.yasar.listigo.demo.dto.BlockUserDTO;
 import com.yasar.listigo.demo.dto.ChangePasswordRequest;
 import com.yasar.listigo.demo.dto.LoginRequest;
+import com.yasar.listigo.demo.dto.LogoutRequest;
 import com.yasar.listigo.demo.dto.RefreshTokenRequest;
 import com.yasar.listigo.demo.dto.UserDto;
 import com.yasar.listigo.demo.dto.UserResponse;
 import com.yasar.listigo.demo.entity.UserMetadata;
 import com.yasar.listigo.demo.exception.AuthenticationFailedException;
 import com.yasar.listigo.demo.exception.PasswordsDoNotMatchException;
+import com.yasar.listigo.demo.security.VerifiedToken;
 import com.yasar.listigo.demo.service.UserService;
 import com.yasar.listigo.demo.dto.AuthResponse;
 import io.swagger.v3.oas.annotations.Operation;
@@ -17,10 +19,12 @@ import io.swagger.v3.oas.annotations.media.Content;
 import io.swagger.v3.oas.annotations.media.Schema;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.servlet.http.HttpServletRequest;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.Authentication;
 import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.web.bind.annotation.GetMapping;
@@ -64,11 +68,14 @@ public class UserRestController {
             responses = {
                     @ApiResponse(description = "Login successful", responseCode = "200"),
                     @ApiResponse(description = "Bad request", responseCode = "400"),
-                    @ApiResponse(description = "Invalid credentials", responseCode = "401")
+                    @ApiResponse(description = "Invalid credentials", responseCode = "401"),
+                    @ApiResponse(description = "Too many failed attempts", responseCode = "429")
             }
     )
-    public ResponseEntity<AuthResponse> loginUser(@Valid @RequestBody LoginRequest loginRequest) {
-        AuthResponse authResponse = userService.handleLoginUser(loginRequest.getEmail(), loginRequest.getPassword());
+    public ResponseEntity<AuthResponse> loginUser(@Valid @RequestBody LoginRequest loginRequest,
+                                                  HttpServletRequest request) {
+        AuthResponse authResponse = userService.handleLoginUser(loginRequest.getEmail(), loginRequest.getPassword(),
+                request.getRemoteAddr());
         return ResponseEntity.ok(authResponse);
     }
 
@@ -121,6 +128,36 @@ public class UserRestController {
         return ResponseEntity.ok(authResponse);
     }
 
+    @PostMapping("/logout")
+    @Operation(
+            description = "Revokes the access token of the request and, if given, the session's refresh token",
+            responses = {
+                    @ApiResponse(description = "Logged out", responseCode = "204"),
+                    @ApiResponse(description = "Unauthorized", responseCode = "401")
+            }
+    )
+    public ResponseEntity<Void> logout(Authentication authentication,
+                                       @RequestBody(required = false) LogoutRequest logoutRequest) {
+        if (!(authentication.getDetails() instanceof VerifiedToken accessToken)) {
+            throw new AuthenticationFailedException("Request was not authenticated with an access token");
+        }
+        userService.handleLogout(accessToken, logoutRequest != null ? logoutRequest.getRefreshToken() : null);
+        return ResponseEntity.noContent().build();
+    }
+
+    @PostMapping("/logout-all")
+    @Operation(
+            description = "Revokes every access and refresh token of the current user, signing out all devices",
+            responses = {
+                    @ApiResponse(description = "Logged out of all devices", responseCode = "204"),
+                    @ApiResponse(description = "Unauthorized", responseCode = "401")
+            }
+    )
+    public ResponseEntity<Void> logoutAll(@AuthenticationPrincipal UUID userId) {
+        userService.handleLogoutAll(userId);
+        return ResponseEntity.noContent().build();
+    }
+
     @PostMapping("/block")
     @Operation(
             description = "Blocks a user, preventing them from sending messages to the authenticated user.",
@@ -1,9 +1,13 @@
 package com.yasar.listigo.demo.converter;
 
 import com.yasar.listigo.demo.dto.ListingDTO;
+import com.yasar.listigo.demo.entity.Category;
 import com.yasar.listigo.demo.entity.Listing;
+import com.yasar.listigo.demo.entity.UserMetadata;
 import org.springframework.stereotype.Component;
 
+import java.time.LocalDateTime;
+
 @Component
 public class ListingDtoConverter {
 
@@ -21,6 +25,26 @@ public class ListingDtoConverter {
         dto.setMileage(listing.getMileage());
         dto.setLocation(listing.getLocation());
         dto.setPhotos(listing.getPhotos());
+        dto.setVersion(listing.getVersion());
+        dto.setUpdatedAt(listing.getUpdatedAt());
         return dto;
     }
-}
\ No newline at end of file
+
+    public Listing toListing(UserMetadata user, Category category, ListingDTO listingDTO, LocalDateTime createdAt) {
+        Listing listing = new Listing();
+        listing.setUser(user);
+        listing.setCategory(category);
+        listing.setTitle(listingDTO.getTitle());
+        listing.setDescription(listingDTO.getDescription());
+        listing.setPrice(listingDTO.getPrice());
+        listing.setBrand(listingDTO.getBrand());
+        listing.setModel(listingDTO.getModel());
+        listing.setYear(listingDTO.getYear());
+        listing.setMileage(listingDTO.getMileage());
+        listing.setLocation(listingDTO.getLocation());
+        listing.setPhotos(listingDTO.getPhotos());
+        listing.setCreatedAt(createdAt);
+        listing.setUpdatedAt(createdAt);
+        return listing;
+    }
+}
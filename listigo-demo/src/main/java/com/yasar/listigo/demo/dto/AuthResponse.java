@@ -1,6 +1,5 @@
 package com.yasar.listigo.demo.dto;
 
-import com.yasar.listigo.demo.entity.UserMetadata;
 import lombok.AllArgsConstructor;
 import lombok.Data;
 
@@ -10,5 +9,5 @@ public class AuthResponse {
 
     private String accessToken;
     private String refreshToken;
-    private UserMetadata user;
+    private UserResponse user;
 }
\ No newline at end of file
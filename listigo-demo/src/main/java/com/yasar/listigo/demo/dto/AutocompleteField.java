@@ -0,0 +1,23 @@
+package com.yasar.listigo.demo.dto;
+
+import java.util.function.Function;
+
+/**
+ * Exact-match filter fields that support prefix autocompletion.
+ */
+public enum AutocompleteField {
+
+    BRAND(ListingDTO::getBrand),
+    MODEL(ListingDTO::getModel),
+    LOCATION(ListingDTO::getLocation);
+
+    private final Function<ListingDTO, String> value;
+
+    AutocompleteField(Function<ListingDTO, String> value) {
+        this.value = value;
+    }
+
+    public String valueOf(ListingDTO listing) {
+        return value.apply(listing);
+    }
+}
@@ -0,0 +1,31 @@
+package com.yasar.listigo.demo.dto;
+
+import lombok.Data;
+
+import java.time.LocalDateTime;
+
+@Data
+public class ConversationDTO {
+
+    private Long listingId;
+
+    private String listingTitle;
+
+    /**
+     * The other participant of the conversation.
+     */
+    private String counterpartId;
+
+    private Long lastMessageId;
+
+    private String lastSenderId;
+
+    private String lastMessagePreview;
+
+    private LocalDateTime lastSentAt;
+
+    /**
+     * Messages of the conversation the authenticated user has not read.
+     */
+    private int unreadCount;
+}
@@ -0,0 +1,15 @@
+package com.yasar.listigo.demo.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+import java.util.List;
+
+@Data
+@AllArgsConstructor
+public class ConversationPageDTO {
+
+    private List<ConversationDTO> conversations;
+
+    private String nextCursor;
+}
@@ -0,0 +1,15 @@
+package com.yasar.listigo.demo.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class FacetCountDTO {
+
+    private String value;
+
+    private long count;
+}
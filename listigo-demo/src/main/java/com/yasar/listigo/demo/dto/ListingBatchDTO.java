@@ -0,0 +1,21 @@
+package com.yasar.listigo.demo.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+import java.util.List;
+
+@Data
+@AllArgsConstructor
+public class ListingBatchDTO {
+
+    /**
+     * Found listings in the order they were requested, without duplicates.
+     */
+    private List<ListingDTO> listings;
+
+    /**
+     * Requested IDs that do not exist.
+     */
+    private List<Long> missingIds;
+}
@@ -0,0 +1,17 @@
+package com.yasar.listigo.demo.dto;
+
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Positive;
+import jakarta.validation.constraints.Size;
+import lombok.Data;
+
+import java.util.List;
+
+@Data
+public class ListingBatchRequest {
+
+    @NotEmpty(message = "Listing IDs cannot be empty")
+    @Size(max = 100, message = "At most 100 listings can be fetched at once")
+    private List<@NotNull(message = "Listing ID cannot be null") @Positive(message = "Listing ID must be positive") Long> listingIds;
+}
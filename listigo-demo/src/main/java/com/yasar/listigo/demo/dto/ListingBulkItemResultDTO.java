@@ -0,0 +1,39 @@
+package com.yasar.listigo.demo.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+@Data
+@AllArgsConstructor
+public class ListingBulkItemResultDTO {
+
+    public enum Status {
+        CREATED,
+        FAILED
+    }
+
+    /**
+     * Position of the listing in the request.
+     */
+    private int index;
+
+    private Status status;
+
+    /**
+     * ID of the created listing, null if it failed.
+     */
+    private Long listingId;
+
+    /**
+     * Why the listing was not created, null if it was.
+     */
+    private String error;
+
+    public static ListingBulkItemResultDTO created(int index, Long listingId) {
+        return new ListingBulkItemResultDTO(index, Status.CREATED, listingId, null);
+    }
+
+    public static ListingBulkItemResultDTO failed(int index, String error) {
+        return new ListingBulkItemResultDTO(index, Status.FAILED, null, error);
+    }
+}
@@ -0,0 +1,20 @@
+package com.yasar.listigo.demo.dto;
+
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
+import lombok.Data;
+
+import java.util.List;
+
+@Data
+public class ListingBulkRequest {
+
+    /**
+     * Listings to create. Each one is validated on its own, so an invalid listing is
+     * reported in its item result instead of rejecting the whole request.
+     */
+    @NotEmpty(message = "Listings cannot be empty")
+    @Size(max = 5000, message = "At most 5000 listings can be created at once")
+    private List<@NotNull(message = "Listing cannot be null") ListingDTO> listings;
+}
@@ -0,0 +1,20 @@
+package com.yasar.listigo.demo.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+import java.util.List;
+
+@Data
+@AllArgsConstructor
+public class ListingBulkResultDTO {
+
+    private int created;
+
+    private int failed;
+
+    /**
+     * One result per requested listing, in request order.
+     */
+    private List<ListingBulkItemResultDTO> results;
+}
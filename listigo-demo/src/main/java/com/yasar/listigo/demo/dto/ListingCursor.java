@@ -0,0 +1,59 @@
+package com.yasar.listigo.demo.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+import java.nio.charset.StandardCharsets;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+
+/**
+ * Position of the last row of a listing page. Clients only ever see the encoded,
+ * opaque form and send it back unchanged to fetch the next page.
+ */
+@Data
+@AllArgsConstructor
+public class ListingCursor {
+
+    private static final String SEPARATOR = "|";
+
+    private ListingSort sort;
+    private String key;
+    private Long listingId;
+
+    public static ListingCursor of(ListingSort sort, ListingDTO listing) {
+        return new ListingCursor(sort, sort.keyOf(listing.getPrice(), listing.getCreatedAt()), listing.getListingId());
+    }
+
+    public static ListingCursor of(ListingSort sort, ListingSummaryDTO listing) {
+        return new ListingCursor(sort, sort.keyOf(listing.getPrice(), listing.getCreatedAt()), listing.getListingId());
+    }
+
+    public Object parsedKey() {
+        return sort.parseKey(key);
+    }
+
+    public String encode() {
+        String raw = sort.name() + SEPARATOR + key + SEPARATOR + listingId;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    public static ListingCursor decode(String token, ListingSort expectedSort) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+            String[] parts = raw.split("\\|", -1);
+            if (parts.length != 3) {
+                throw new IllegalArgumentException("Malformed cursor");
+            }
+            ListingSort sort = ListingSort.valueOf(parts[0]);
+            if (sort != expectedSort) {
+                throw new IllegalArgumentException("Cursor does not match the requested sort order");
+            }
+            ListingCursor cursor = new ListingCursor(sort, parts[1], Long.parseLong(parts[2]));
+            cursor.parsedKey();
+            return cursor;
+        } catch (IllegalArgumentException | DateTimeParseException ex) {
+            throw new IllegalArgumentException("Invalid cursor: " + ex.getMessage());
+        }
+    }
+}
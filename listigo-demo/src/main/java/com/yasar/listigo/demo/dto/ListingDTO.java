@@ -56,4 +56,14 @@ public class ListingDTO {
     private List<String> photos;
 
     private LocalDateTime createdAt;
+
+    /**
+     * Version of the listing this state was read at; ignored on create and update.
+     */
+    private Long version;
+
+    /**
+     * Time of the write that produced this state; ignored on create and update.
+     */
+    private LocalDateTime updatedAt;
 }
\ No newline at end of file
@@ -0,0 +1,23 @@
+package com.yasar.listigo.demo.dto;
+
+import lombok.Data;
+
+import java.util.List;
+
+@Data
+public class ListingFacetsDTO {
+
+    private long total;
+
+    private List<FacetCountDTO> categories;
+
+    private List<FacetCountDTO> brands;
+
+    private List<FacetCountDTO> models;
+
+    private List<FacetCountDTO> yearRanges;
+
+    private List<FacetCountDTO> priceRanges;
+
+    private List<FacetCountDTO> locations;
+}
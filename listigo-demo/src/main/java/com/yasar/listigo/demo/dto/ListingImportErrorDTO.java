@@ -0,0 +1,16 @@
+package com.yasar.listigo.demo.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+@Data
+@AllArgsConstructor
+public class ListingImportErrorDTO {
+
+    /**
+     * 1-based record number in the file, not counting the CSV header.
+     */
+    private long row;
+
+    private String message;
+}
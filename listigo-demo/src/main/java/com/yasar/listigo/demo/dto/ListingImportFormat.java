@@ -0,0 +1,49 @@
+package com.yasar.listigo.demo.dto;
+
+import java.util.Locale;
+
+/**
+ * File formats accepted by the listing import. CSV files need a header row naming the
+ * {@link ListingDTO} fields, with photo URLs separated by '|'; NDJSON files hold one
+ * listing object per line.
+ */
+public enum ListingImportFormat {
+    CSV,
+    NDJSON;
+
+    /**
+     * Infers the format from the content type of the request body.
+     *
+     * @param contentType content type of the body, may be null
+     * @return the format, or null if the content type does not name one
+     */
+    public static ListingImportFormat ofContentType(String contentType) {
+        String type = contentType == null ? "" : contentType.toLowerCase(Locale.ROOT);
+        if (type.startsWith("text/csv")) {
+            return CSV;
+        }
+        if (type.startsWith("application/x-ndjson") || type.startsWith("application/jsonl")) {
+            return NDJSON;
+        }
+        return null;
+    }
+
+    /**
+     * Infers the format from the file name extension.
+     *
+     * @param fileName name of the uploaded file
+     * @return the format
+     * @throws IllegalArgumentException if the extension is not .csv, .ndjson or .jsonl
+     */
+    public static ListingImportFormat ofFileName(String fileName) {
+        String name = fileName == null ? "" : fileName.toLowerCase(Locale.ROOT);
+        if (name.endsWith(".csv")) {
+            return CSV;
+        }
+        if (name.endsWith(".ndjson") || name.endsWith(".jsonl")) {
+            return NDJSON;
+        }
+        throw new IllegalArgumentException("Cannot infer import format of file '" + fileName +
+                "', pass the format parameter");
+    }
+}
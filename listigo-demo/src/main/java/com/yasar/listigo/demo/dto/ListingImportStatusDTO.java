@@ -0,0 +1,56 @@
+package com.yasar.listigo.demo.dto;
+
+import lombok.Data;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+
+@Data
+public class ListingImportStatusDTO {
+
+    public enum Status {
+        RUNNING,
+        COMPLETED,
+        FAILED
+    }
+
+    private UUID jobId;
+
+    private Status status;
+
+    private ListingImportFormat format;
+
+    private String fileName;
+
+    /**
+     * Records read from the file so far.
+     */
+    private long rowsRead;
+
+    /**
+     * Listings committed to the database so far.
+     */
+    private long rowsImported;
+
+    private long rowsFailed;
+
+    /**
+     * Committed listings per second since the job started.
+     */
+    private double rowsPerSecond;
+
+    private LocalDateTime startedAt;
+
+    private LocalDateTime finishedAt;
+
+    /**
+     * Why the whole job failed, null unless the status is FAILED.
+     */
+    private String failure;
+
+    /**
+     * Errors of individual rows, capped at the configured maximum; rowsFailed counts all of them.
+     */
+    private List<ListingImportErrorDTO> errors;
+}
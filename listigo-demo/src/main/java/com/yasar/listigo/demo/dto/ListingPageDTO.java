@@ -0,0 +1,15 @@
+package com.yasar.listigo.demo.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+import java.util.List;
+
+@Data
+@AllArgsConstructor
+public class ListingPageDTO<T> {
+
+    private List<T> listings;
+
+    private String nextCursor;
+}
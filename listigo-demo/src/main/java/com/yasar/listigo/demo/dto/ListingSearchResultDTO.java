@@ -0,0 +1,31 @@
+package com.yasar.listigo.demo.dto;
+
+import lombok.Data;
+
+@Data
+public class ListingSearchResultDTO {
+
+    private Long listingId;
+
+    private Long categoryId;
+
+    private String title;
+
+    private Double price;
+
+    private String brand;
+
+    private String model;
+
+    private Integer year;
+
+    private Integer mileage;
+
+    private String location;
+
+    private Double rank;
+
+    private String titleHighlight;
+
+    private String descriptionSnippet;
+}
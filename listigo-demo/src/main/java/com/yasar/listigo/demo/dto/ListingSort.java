@@ -0,0 +1,41 @@
+package com.yasar.listigo.demo.dto;
+
+import lombok.Getter;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * Sort orders supported by the keyset-paginated listing endpoints.
+ * Every order is made total by breaking ties on listing_id.
+ */
+@Getter
+public enum ListingSort {
+
+    NEWEST("created_at", true),
+    OLDEST("created_at", false),
+    PRICE_ASC("price", false),
+    PRICE_DESC("price", true);
+
+    private final String column;
+    private final boolean descending;
+
+    ListingSort(String column, boolean descending) {
+        this.column = column;
+        this.descending = descending;
+    }
+
+    public String keyOf(Double price, LocalDateTime createdAt) {
+        return isPriceSort()
+                ? BigDecimal.valueOf(price).toPlainString()
+                : createdAt.toString();
+    }
+
+    public Object parseKey(String key) {
+        return isPriceSort() ? new BigDecimal(key) : LocalDateTime.parse(key);
+    }
+
+    private boolean isPriceSort() {
+        return "price".equals(column);
+    }
+}
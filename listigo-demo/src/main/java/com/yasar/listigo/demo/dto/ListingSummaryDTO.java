@@ -0,0 +1,29 @@
+package com.yasar.listigo.demo.dto;
+
+import lombok.Data;
+
+import java.time.LocalDateTime;
+
+/**
+ * Lightweight listing representation for collection views. Leaves out the description
+ * and carries only the first photo.
+ */
+@Data
+public class ListingSummaryDTO {
+
+    private Long listingId;
+
+    private String title;
+
+    private Double price;
+
+    private Integer year;
+
+    private Integer mileage;
+
+    private String location;
+
+    private String photo;
+
+    private LocalDateTime createdAt;
+}
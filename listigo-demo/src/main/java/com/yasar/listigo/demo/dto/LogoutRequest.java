@@ -0,0 +1,12 @@
+package com.yasar.listigo.demo.dto;
+
+import lombok.Data;
+
+@Data
+public class LogoutRequest {
+
+    /**
+     * Refresh token of the session to end along with the access token, optional.
+     */
+    private String refreshToken;
+}
@@ -0,0 +1,50 @@
+package com.yasar.listigo.demo.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+
+/**
+ * Position of the last message of a conversation page, or of the last conversation of an
+ * inbox page by its latest message. Clients only ever see the encoded, opaque form and send
+ * it back unchanged to fetch the next page.
+ */
+@Data
+@AllArgsConstructor
+public class MessageCursor {
+
+    private static final String SEPARATOR = "|";
+
+    private LocalDateTime sentAt;
+    private Long messageId;
+
+    public static MessageCursor of(MessageDTO message) {
+        return new MessageCursor(message.getSentAt(), message.getMessageId());
+    }
+
+    public static MessageCursor of(ConversationDTO conversation) {
+        return new MessageCursor(conversation.getLastSentAt(), conversation.getLastMessageId());
+    }
+
+    public String encode() {
+        String raw = sentAt + SEPARATOR + messageId;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    public static MessageCursor decode(String token) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+            String[] parts = raw.split("\\|", -1);
+            if (parts.length != 2) {
+                throw new IllegalArgumentException("Malformed cursor");
+            }
+            return new MessageCursor(LocalDateTime.parse(parts[0]), Long.parseLong(parts[1]));
+        } catch (IllegalArgumentException | DateTimeParseException ex) {
+            throw new IllegalArgumentException("Invalid cursor: " + ex.getMessage());
+        }
+    }
+}
@@ -3,9 +3,13 @@ package com.yasar.listigo.demo.dto;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.Size;
 import lombok.Data;
+import lombok.NoArgsConstructor;
 
 import java.time.LocalDateTime;
+import java.util.UUID;
+
 @Data
+@NoArgsConstructor
 public class MessageDTO {
 
     private Long messageId;
@@ -27,4 +31,19 @@ public class MessageDTO {
     private LocalDateTime sentAt;
 
     private boolean isRead;
+
+    /**
+     * Used by constructor-expression queries that read the sender, receiver and listing
+     * straight from the message's foreign-key columns.
+     */
+    public MessageDTO(Long messageId, UUID senderId, UUID receiverId, Long listingId, String content,
+                      LocalDateTime sentAt, boolean isRead) {
+        this.messageId = messageId;
+        this.senderId = senderId.toString();
+        this.receiverId = receiverId.toString();
+        this.listingId = listingId;
+        this.content = content;
+        this.sentAt = sentAt;
+        this.isRead = isRead;
+    }
 }
@@ -0,0 +1,24 @@
+package com.yasar.listigo.demo.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+
+/**
+ * Validators of a resource representation for conditional GETs. The entity tag changes
+ * whenever the representation does; lastModified is the UTC time of the latest write.
+ */
+@Data
+@AllArgsConstructor
+public class ResourceVersionDTO {
+
+    private String eTag;
+
+    private LocalDateTime lastModified;
+
+    public long lastModifiedMillis() {
+        return lastModified == null ? -1 : lastModified.toInstant(ZoneOffset.UTC).toEpochMilli();
+    }
+}
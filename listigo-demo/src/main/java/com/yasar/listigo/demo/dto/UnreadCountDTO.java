@@ -0,0 +1,11 @@
+package com.yasar.listigo.demo.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+@Data
+@AllArgsConstructor
+public class UnreadCountDTO {
+
+    private long unreadCount;
+}
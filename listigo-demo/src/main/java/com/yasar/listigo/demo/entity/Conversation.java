@@ -0,0 +1,41 @@
+package com.yasar.listigo.demo.entity;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.EmbeddedId;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Table;
+import lombok.Data;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * Read model of a conversation for the inbox, maintained alongside the messages it
+ * summarizes. Only written through the native statements of ConversationRepository.
+ */
+@Data
+@Entity
+@Table(name = "conversations")
+public class Conversation {
+
+    @EmbeddedId
+    private ConversationId id;
+
+    @Column(name = "last_message_id", nullable = false)
+    private Long lastMessageId;
+
+    @Column(name = "last_sender_id", nullable = false)
+    private UUID lastSenderId;
+
+    @Column(name = "last_message_preview", nullable = false)
+    private String lastMessagePreview;
+
+    @Column(name = "last_sent_at", nullable = false)
+    private LocalDateTime lastSentAt;
+
+    @Column(name = "unread_a", nullable = false)
+    private int unreadA;
+
+    @Column(name = "unread_b", nullable = false)
+    private int unreadB;
+}
@@ -0,0 +1,30 @@
+package com.yasar.listigo.demo.entity;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Embeddable;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.io.Serializable;
+import java.util.UUID;
+
+/**
+ * Identifies a conversation by its listing and its two participants, ordered the way
+ * PostgreSQL orders UUIDs so each pair has exactly one key.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Embeddable
+public class ConversationId implements Serializable {
+
+    @Column(name = "listing_id", nullable = false)
+    private Long listingId;
+
+    @Column(name = "user_a", nullable = false)
+    private UUID userA;
+
+    @Column(name = "user_b", nullable = false)
+    private UUID userB;
+}
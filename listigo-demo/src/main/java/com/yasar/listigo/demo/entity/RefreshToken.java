@@ -0,0 +1,70 @@
+package com.yasar.listigo.demo.entity;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.PostLoad;
+import jakarta.persistence.PostPersist;
+import jakarta.persistence.Table;
+import jakarta.persistence.Transient;
+import lombok.Data;
+import org.springframework.data.domain.Persistable;
+
+import java.time.Instant;
+import java.util.UUID;
+
+/**
+ * An issued refresh token, stored only as the hex SHA-256 of its value. Every token issued
+ * by rotating another one shares its family, so reuse of a rotated token can revoke the
+ * whole chain.
+ */
+@Data
+@Entity
+@Table(name = "refresh_tokens")
+public class RefreshToken implements Persistable<String> {
+
+    @Id
+    @Column(name = "token_hash", nullable = false, updatable = false)
+    private String tokenHash;
+
+    @Column(name = "user_id", nullable = false, updatable = false)
+    private UUID userId;
+
+    @Column(name = "family_id", nullable = false, updatable = false)
+    private UUID familyId;
+
+    @Column(name = "created_at", nullable = false, updatable = false)
+    private Instant createdAt;
+
+    @Column(name = "expires_at", nullable = false, updatable = false)
+    private Instant expiresAt;
+
+    /**
+     * When the token was exchanged for its successor, null while it is still usable.
+     */
+    @Column(name = "used_at")
+    private Instant usedAt;
+
+    /**
+     * The ID is assigned, so Spring Data cannot tell a new token from a stored one by it;
+     * without this flag every save would select before inserting.
+     */
+    @Transient
+    private boolean persisted;
+
+    @Override
+    public String getId() {
+        return tokenHash;
+    }
+
+    @Override
+    public boolean isNew() {
+        return !persisted;
+    }
+
+    @PostLoad
+    @PostPersist
+    void markPersisted() {
+        persisted = true;
+    }
+}
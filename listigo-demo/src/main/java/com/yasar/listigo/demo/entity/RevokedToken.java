@@ -0,0 +1,53 @@
+package com.yasar.listigo.demo.entity;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.PostLoad;
+import jakarta.persistence.PostPersist;
+import jakarta.persistence.Table;
+import jakarta.persistence.Transient;
+import lombok.Data;
+import org.springframework.data.domain.Persistable;
+
+import java.time.Instant;
+import java.util.UUID;
+
+/**
+ * An access token revoked before its expiry, identified by its jti. Kept until the token
+ * would have expired anyway.
+ */
+@Data
+@Entity
+@Table(name = "revoked_tokens")
+public class RevokedToken implements Persistable<UUID> {
+
+    @Id
+    @Column(name = "token_id", nullable = false, updatable = false)
+    private UUID tokenId;
+
+    @Column(name = "user_id", nullable = false, updatable = false)
+    private UUID userId;
+
+    @Column(name = "expires_at", nullable = false, updatable = false)
+    private Instant expiresAt;
+
+    @Transient
+    private boolean persisted;
+
+    @Override
+    public UUID getId() {
+        return tokenId;
+    }
+
+    @Override
+    public boolean isNew() {
+        return !persisted;
+    }
+
+    @PostLoad
+    @PostPersist
+    void markPersisted() {
+        persisted = true;
+    }
+}
@@ -12,7 +12,6 @@ import lombok.Data;
 import lombok.ToString;
 import org.hibernate.annotations.UuidGenerator;
 
-import java.time.Instant;
 import java.time.LocalDateTime;
 import java.util.ArrayList;
 import java.util.List;
@@ -48,10 +47,4 @@ public class UserMetadata {
     @OneToMany(mappedBy = "user", cascade = CascadeType.ALL, orphanRemoval = true)
     @JsonManagedReference
     private List<Listing> listings = new ArrayList<>();
-
-    @Column(name = "refresh_token")
-    private String refreshToken;
-
-    @Column(name = "refresh_token_expiration")
-    private Instant refreshTokenExpiration;
 }
\ No newline at end of file
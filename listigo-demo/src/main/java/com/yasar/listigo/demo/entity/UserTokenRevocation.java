@@ -0,0 +1,30 @@
+package com.yasar.listigo.demo.entity;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import lombok.Data;
+
+import java.time.Instant;
+import java.util.UUID;
+
+/**
+ * Revokes every access token of a user issued up to a point in time. Kept until the last
+ * such token would have expired anyway.
+ */
+@Data
+@Entity
+@Table(name = "user_token_revocations")
+public class UserTokenRevocation {
+
+    @Id
+    @Column(name = "user_id", nullable = false, updatable = false)
+    private UUID userId;
+
+    @Column(name = "revoked_before", nullable = false)
+    private Instant revokedBefore;
+
+    @Column(name = "expires_at", nullable = false)
+    private Instant expiresAt;
+}
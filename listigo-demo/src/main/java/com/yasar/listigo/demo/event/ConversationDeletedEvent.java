@@ -0,0 +1,22 @@
+package com.yasar.listigo.demo.event;
+
+import lombok.Getter;
+
+import java.util.UUID;
+
+/**
+ * Published when a user deletes their conversations on a listing, together with the
+ * messages both sides exchanged there.
+ */
+@Getter
+public class ConversationDeletedEvent {
+
+    private final Long listingId;
+
+    private final UUID userId;
+
+    public ConversationDeletedEvent(Long listingId, UUID userId) {
+        this.listingId = listingId;
+        this.userId = userId;
+    }
+}
@@ -0,0 +1,35 @@
+package com.yasar.listigo.demo.event;
+
+import com.yasar.listigo.demo.dto.ListingDTO;
+import lombok.Getter;
+
+/**
+ * Published whenever a listing is created, updated or deleted. Carries the state before and
+ * after the change so in-memory read models can adjust themselves without querying the database.
+ * Listeners should use {@code @TransactionalEventListener} so only committed changes are applied.
+ */
+@Getter
+public class ListingChangedEvent {
+
+    private final Long listingId;
+
+    /**
+     * State before the change, or null when the listing was created.
+     */
+    private final ListingDTO previous;
+
+    /**
+     * State after the change, or null when the listing was deleted.
+     */
+    private final ListingDTO current;
+
+    public ListingChangedEvent(Long listingId, ListingDTO previous, ListingDTO current) {
+        this.listingId = listingId;
+        this.previous = previous;
+        this.current = current;
+    }
+
+    public boolean isDeleted() {
+        return current == null;
+    }
+}
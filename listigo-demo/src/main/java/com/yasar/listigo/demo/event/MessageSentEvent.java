@@ -0,0 +1,18 @@
+package com.yasar.listigo.demo.event;
+
+import com.yasar.listigo.demo.dto.MessageDTO;
+import lombok.Getter;
+
+/**
+ * Published when a message is sent. Listeners should use {@code @TransactionalEventListener}
+ * so a message is only pushed to clients once it has been committed.
+ */
+@Getter
+public class MessageSentEvent {
+
+    private final MessageDTO message;
+
+    public MessageSentEvent(MessageDTO message) {
+        this.message = message;
+    }
+}
@@ -0,0 +1,21 @@
+package com.yasar.listigo.demo.event;
+
+import lombok.Getter;
+
+import java.util.UUID;
+
+/**
+ * Published when messages sent to a user are marked read.
+ */
+@Getter
+public class MessagesReadEvent {
+
+    private final UUID receiverId;
+
+    private final int count;
+
+    public MessagesReadEvent(UUID receiverId, int count) {
+        this.receiverId = receiverId;
+        this.count = count;
+    }
+}
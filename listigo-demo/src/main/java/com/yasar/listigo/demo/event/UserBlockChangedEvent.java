@@ -0,0 +1,28 @@
+package com.yasar.listigo.demo.event;
+
+import lombok.Getter;
+
+import java.util.UUID;
+
+/**
+ * Published when a user blocks or unblocks another user. Listeners should use
+ * {@code @TransactionalEventListener} so only committed changes are applied.
+ */
+@Getter
+public class UserBlockChangedEvent {
+
+    private final UUID blockerId;
+
+    private final UUID blockedId;
+
+    /**
+     * True if the user was blocked, false if unblocked.
+     */
+    private final boolean blocked;
+
+    public UserBlockChangedEvent(UUID blockerId, UUID blockedId, boolean blocked) {
+        this.blockerId = blockerId;
+        this.blockedId = blockedId;
+        this.blocked = blocked;
+    }
+}
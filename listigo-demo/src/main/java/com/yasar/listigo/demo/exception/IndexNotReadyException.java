@@ -0,0 +1,7 @@
+package com.yasar.listigo.demo.exception;
+
+public class IndexNotReadyException extends RuntimeException {
+    public IndexNotReadyException(String message) {
+        super(message);
+    }
+}
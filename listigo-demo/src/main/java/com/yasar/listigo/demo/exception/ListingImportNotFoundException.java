@@ -0,0 +1,7 @@
+package com.yasar.listigo.demo.exception;
+
+public class ListingImportNotFoundException extends RuntimeException {
+    public ListingImportNotFoundException(String message) {
+        super(message);
+    }
+}
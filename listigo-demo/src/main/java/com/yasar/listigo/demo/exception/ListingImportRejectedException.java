@@ -0,0 +1,7 @@
+package com.yasar.listigo.demo.exception;
+
+public class ListingImportRejectedException extends RuntimeException {
+    public ListingImportRejectedException(String message) {
+        super(message);
+    }
+}
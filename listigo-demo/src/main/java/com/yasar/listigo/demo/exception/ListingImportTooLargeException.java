@@ -0,0 +1,7 @@
+package com.yasar.listigo.demo.exception;
+
+public class ListingImportTooLargeException extends RuntimeException {
+    public ListingImportTooLargeException(String message) {
+        super(message);
+    }
+}
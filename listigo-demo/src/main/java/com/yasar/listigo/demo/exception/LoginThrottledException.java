@@ -0,0 +1,14 @@
+package com.yasar.listigo.demo.exception;
+
+import lombok.Getter;
+
+@Getter
+public class LoginThrottledException extends RuntimeException {
+
+    private final long retryAfterSeconds;
+
+    public LoginThrottledException(String message, long retryAfterSeconds) {
+        super(message);
+        this.retryAfterSeconds = retryAfterSeconds;
+    }
+}
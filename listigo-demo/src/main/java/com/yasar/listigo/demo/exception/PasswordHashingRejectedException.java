@@ -0,0 +1,14 @@
+package com.yasar.listigo.demo.exception;
+
+import lombok.Getter;
+
+@Getter
+public class PasswordHashingRejectedException extends RuntimeException {
+
+    private final long retryAfterSeconds;
+
+    public PasswordHashingRejectedException(String message, long retryAfterSeconds) {
+        super(message);
+        this.retryAfterSeconds = retryAfterSeconds;
+    }
+}
@@ -0,0 +1,99 @@
+package com.yasar.listigo.demo.realtime;
+
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.MediaType;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+
+/**
+ * One open event stream. Events are queued in a bounded buffer and written by a virtual
+ * thread of its own, so publishers never block on a client's socket and an idle connection
+ * costs only a parked virtual thread.
+ */
+@Slf4j
+final class MessageStreamConnection {
+
+    @Getter
+    private final UUID userId;
+    @Getter
+    private final long openedNanos = System.nanoTime();
+    private final SseEmitter emitter;
+    private final BlockingQueue<StreamEvent> buffer;
+    private volatile boolean closed;
+    private volatile Thread writer;
+
+    MessageStreamConnection(UUID userId, SseEmitter emitter, int bufferSize) {
+        this.userId = userId;
+        this.emitter = emitter;
+        this.buffer = new ArrayBlockingQueue<>(bufferSize);
+    }
+
+    /**
+     * Starts the writer thread.
+     *
+     * @param onClose called once the writer has stopped, for whatever reason
+     */
+    void start(Runnable onClose) {
+        writer = Thread.ofVirtual().name("message-stream-" + userId).start(() -> {
+            try {
+                drain();
+            } finally {
+                closed = true;
+                onClose.run();
+                try {
+                    emitter.complete();
+                } catch (RuntimeException ex) {
+                    log.debug("Message stream of user {} was already completed: {}", userId, ex.getMessage());
+                }
+            }
+        });
+    }
+
+    /**
+     * Queues an event without blocking.
+     *
+     * @return false if the connection is closed or its buffer is full
+     */
+    boolean offer(StreamEvent event) {
+        return !closed && buffer.offer(event);
+    }
+
+    /**
+     * Stops the writer. Never blocks, even if the writer is stuck on a slow client's socket;
+     * the emitter is completed by the writer itself once it gets unstuck.
+     */
+    void close() {
+        closed = true;
+        if (writer != null) {
+            writer.interrupt();
+        }
+    }
+
+    private void drain() {
+        try {
+            while (!closed) {
+                StreamEvent event = buffer.take();
+                if (event.name() == null) {
+                    emitter.send(SseEmitter.event().comment((String) event.data()));
+                } else {
+                    SseEmitter.SseEventBuilder builder = SseEmitter.event()
+                            .name(event.name())
+                            .data(event.data(), MediaType.APPLICATION_JSON);
+                    if (event.id() != null) {
+                        builder.id(event.id());
+                    }
+                    emitter.send(builder);
+                }
+            }
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+        } catch (IOException | IllegalStateException ex) {
+            log.debug("Message stream of user {} closed: {}", userId, ex.getMessage());
+        }
+    }
+}
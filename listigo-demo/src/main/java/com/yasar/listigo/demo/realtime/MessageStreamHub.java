@@ -0,0 +1,160 @@
+package com.yasar.listigo.demo.realtime;
+
+import com.yasar.listigo.demo.dto.MessageDTO;
+import com.yasar.listigo.demo.event.MessageSentEvent;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.util.Comparator;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Pushes committed messages to their receivers' open event streams, so clients no longer
+ * need to poll for new messages. A connection whose buffer is full is a slow consumer and
+ * is evicted rather than allowed to hold back delivery or memory; its client reconnects
+ * and catches up through the messages endpoint.
+ */
+@Slf4j
+@Component
+public class MessageStreamHub {
+
+    private static final String MESSAGE_EVENT = "message";
+
+    private final ConcurrentMap<UUID, Set<MessageStreamConnection>> connectionsByUser = new ConcurrentHashMap<>();
+    private final AtomicInteger connectionCount = new AtomicInteger();
+    private final Counter delivered;
+    private final Counter evictions;
+
+    @Value("${message.stream.buffer-size}")
+    private int bufferSize;
+
+    @Value("${message.stream.max-connections-per-user}")
+    private int maxConnectionsPerUser;
+
+    @Value("${message.stream.timeout-ms}")
+    private long timeoutMs;
+
+    public MessageStreamHub(MeterRegistry meterRegistry) {
+        Gauge.builder("message.stream.connections", connectionCount, AtomicInteger::get)
+                .description("Open message event streams")
+                .register(meterRegistry);
+        this.delivered = Counter.builder("message.stream.delivered")
+                .description("Messages queued for delivery to an open event stream")
+                .register(meterRegistry);
+        this.evictions = Counter.builder("message.stream.evictions")
+                .description("Event streams closed because the client did not keep up")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Opens an event stream for the user. When the user already has the maximum number of
+     * streams open, the oldest one is closed.
+     *
+     * @param userId ID of the authenticated user
+     * @return the emitter to return from the controller
+     */
+    public SseEmitter connect(UUID userId) {
+        SseEmitter emitter = new SseEmitter(timeoutMs);
+        MessageStreamConnection connection = new MessageStreamConnection(userId, emitter, bufferSize);
+
+        connectionsByUser.compute(userId, (id, connections) -> {
+            Set<MessageStreamConnection> userConnections = connections != null ? connections
+                    : ConcurrentHashMap.newKeySet();
+            userConnections.add(connection);
+            return userConnections;
+        });
+        connectionCount.incrementAndGet();
+
+        emitter.onCompletion(() -> remove(connection));
+        emitter.onTimeout(() -> remove(connection));
+        emitter.onError(ex -> remove(connection));
+        connection.start(() -> remove(connection));
+        // Sends the response headers right away instead of when the first message arrives
+        connection.offer(StreamEvent.comment("connected"));
+
+        Set<MessageStreamConnection> userConnections = connectionsByUser.get(userId);
+        if (userConnections != null && userConnections.size() > maxConnectionsPerUser) {
+            userConnections.stream()
+                    .min(Comparator.comparingLong(MessageStreamConnection::getOpenedNanos))
+                    .ifPresent(this::remove);
+        }
+        log.debug("Opened message stream for user {}", userId);
+        return emitter;
+    }
+
+    @TransactionalEventListener
+    public void onMessageSent(MessageSentEvent event) {
+        MessageDTO message = event.getMessage();
+        UUID receiverId = UUID.fromString(message.getReceiverId());
+        Set<MessageStreamConnection> connections = connectionsByUser.get(receiverId);
+        if (connections == null) {
+            return;
+        }
+
+        StreamEvent streamEvent = new StreamEvent(MESSAGE_EVENT, String.valueOf(message.getMessageId()), message);
+        for (MessageStreamConnection connection : connections) {
+            if (connection.offer(streamEvent)) {
+                delivered.increment();
+            } else {
+                evict(connection);
+            }
+        }
+    }
+
+    /**
+     * Keeps idle streams open through proxies and detects clients that went away without
+     * closing their connection, whose writes then fail.
+     */
+    @Scheduled(fixedDelayString = "${message.stream.heartbeat-interval-ms}")
+    public void sendHeartbeats() {
+        StreamEvent heartbeat = StreamEvent.comment("heartbeat");
+        connectionsByUser.values().forEach(connections -> connections.forEach(connection -> {
+            if (!connection.offer(heartbeat)) {
+                evict(connection);
+            }
+        }));
+    }
+
+    @PreDestroy
+    public void closeAll() {
+        connectionsByUser.values().forEach(connections -> connections.forEach(this::remove));
+    }
+
+    private void evict(MessageStreamConnection connection) {
+        if (remove(connection)) {
+            evictions.increment();
+            log.warn("Evicted slow message stream of user {}", connection.getUserId());
+        }
+    }
+
+    /**
+     * Closes the connection and forgets it. Safe to call repeatedly and from any thread.
+     *
+     * @return true if this call removed the connection
+     */
+    private boolean remove(MessageStreamConnection connection) {
+        connection.close();
+        AtomicBoolean removed = new AtomicBoolean();
+        connectionsByUser.computeIfPresent(connection.getUserId(), (id, connections) -> {
+            removed.set(connections.remove(connection));
+            return connections.isEmpty() ? null : connections;
+        });
+        if (removed.get()) {
+            connectionCount.decrementAndGet();
+        }
+        return removed.get();
+    }
+}
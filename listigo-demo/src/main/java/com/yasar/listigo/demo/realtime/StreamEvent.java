@@ -0,0 +1,16 @@
+package com.yasar.listigo.demo.realtime;
+
+/**
+ * An event waiting in a connection's buffer. Kept separate from Spring's SSE event builder,
+ * which is mutated when sent and so cannot be shared between connections.
+ *
+ * @param name event name, or null for a comment-only heartbeat
+ * @param id   event ID clients can resume from, may be null
+ * @param data payload serialized as JSON, or the comment text of a heartbeat
+ */
+record StreamEvent(String name, String id, Object data) {
+
+    static StreamEvent comment(String text) {
+        return new StreamEvent(null, null, text);
+    }
+}
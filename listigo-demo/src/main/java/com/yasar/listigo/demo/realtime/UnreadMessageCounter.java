@@ -0,0 +1,139 @@
+package com.yasar.listigo.demo.realtime;
+
+import com.yasar.listigo.demo.event.ConversationDeletedEvent;
+import com.yasar.listigo.demo.event.MessageSentEvent;
+import com.yasar.listigo.demo.event.MessagesReadEvent;
+import com.yasar.listigo.demo.repository.MessageRepository;
+import com.yasar.listigo.demo.repository.projection.UnreadCount;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.stream.Collectors;
+
+/**
+ * Unread message counts per receiver for the unread badge. A receiver's count is seeded
+ * from the database the first time it is asked for and then kept current from committed
+ * message events, so badge reads never touch the database in steady state.
+ * <p>
+ * A message committed between the seeding query and the seeded count becoming visible can
+ * be missed, and deleted conversations only reset the deleting user. The reconciliation
+ * job corrects both by recounting tracked receivers periodically.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class UnreadMessageCounter {
+
+    private static final int RECONCILE_BATCH_SIZE = 500;
+
+    private final MessageRepository messageRepository;
+
+    private final ConcurrentMap<UUID, Counter> counters = new ConcurrentHashMap<>();
+
+    @Value("${message.unread.idle-timeout-ms}")
+    private long idleTimeoutMs;
+
+    private static final class Counter {
+        private final LongAdder unread = new LongAdder();
+        private volatile long lastReadNanos = System.nanoTime();
+    }
+
+    private record Snapshot(Counter counter, long unread) {
+    }
+
+    /**
+     * Returns the number of unread messages sent to the user.
+     *
+     * @param receiverId ID of the user
+     * @return unread message count
+     */
+    public long getUnreadCount(UUID receiverId) {
+        Counter counter = counters.get(receiverId);
+        if (counter == null) {
+            Counter seeded = new Counter();
+            seeded.unread.add(messageRepository.countUnreadByReceiverId(receiverId));
+            Counter existing = counters.putIfAbsent(receiverId, seeded);
+            counter = existing != null ? existing : seeded;
+        }
+        counter.lastReadNanos = System.nanoTime();
+        return Math.max(counter.unread.sum(), 0);
+    }
+
+    @TransactionalEventListener
+    public void onMessageSent(MessageSentEvent event) {
+        Counter counter = counters.get(UUID.fromString(event.getMessage().getReceiverId()));
+        if (counter != null) {
+            counter.unread.increment();
+        }
+    }
+
+    @TransactionalEventListener
+    public void onMessagesRead(MessagesReadEvent event) {
+        Counter counter = counters.get(event.getReceiverId());
+        if (counter != null) {
+            counter.unread.add(-event.getCount());
+        }
+    }
+
+    @TransactionalEventListener
+    public void onConversationDeleted(ConversationDeletedEvent event) {
+        counters.remove(event.getUserId());
+    }
+
+    /**
+     * Forgets receivers whose badge has not been read for the idle timeout and recounts the
+     * rest, a batch of receivers per aggregate query.
+     */
+    @Scheduled(fixedDelayString = "${message.unread.reconcile-interval-ms}")
+    public void reconcile() {
+        long idleNanos = TimeUnit.MILLISECONDS.toNanos(idleTimeoutMs);
+        long now = System.nanoTime();
+        counters.values().removeIf(counter -> now - counter.lastReadNanos > idleNanos);
+
+        List<UUID> receivers = new ArrayList<>(counters.keySet());
+        int corrected = 0;
+        for (int from = 0; from < receivers.size(); from += RECONCILE_BATCH_SIZE) {
+            List<UUID> batch = receivers.subList(from, Math.min(from + RECONCILE_BATCH_SIZE, receivers.size()));
+            // Snapshot before the query, so events committed after the query's snapshot stay
+            // counted. Events committed while the query runs can still be counted twice or not
+            // at all; a later pass corrects them.
+            Map<UUID, Snapshot> before = new HashMap<>();
+            for (UUID receiverId : batch) {
+                Counter counter = counters.get(receiverId);
+                if (counter != null) {
+                    before.put(receiverId, new Snapshot(counter, counter.unread.sum()));
+                }
+            }
+            Map<UUID, Long> actual = messageRepository.countUnreadByReceiverIds(batch).stream()
+                    .collect(Collectors.toMap(UnreadCount::getReceiverId, UnreadCount::getCount));
+            for (Map.Entry<UUID, Snapshot> entry : before.entrySet()) {
+                Snapshot snapshot = entry.getValue();
+                // A counter dropped or reseeded meanwhile is no longer the one snapshotted
+                if (counters.get(entry.getKey()) != snapshot.counter()) {
+                    continue;
+                }
+                long drift = actual.getOrDefault(entry.getKey(), 0L) - snapshot.unread();
+                if (drift != 0) {
+                    snapshot.counter().unread.add(drift);
+                    corrected++;
+                }
+            }
+        }
+        if (corrected > 0) {
+            log.info("Corrected unread message counts of {} of {} receivers", corrected, receivers.size());
+        }
+    }
+}
@@ -1,12 +1,27 @@
 package com.yasar.listigo.demo.repository;
 
 import com.yasar.listigo.demo.entity.Category;
+import com.yasar.listigo.demo.repository.projection.CollectionVersion;
+import com.yasar.listigo.demo.repository.projection.EntityVersion;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 
+import java.util.List;
+import java.util.Optional;
+
 public interface CategoryRepository extends JpaRepository<Category, Long> {
 
     @Query("SELECT CASE WHEN COUNT(c) > 0 THEN true ELSE false END FROM Category c WHERE c.categoryName = :categoryName")
     boolean existsByCategoryName(@Param("categoryName") String categoryName);
-}
\ No newline at end of file
+
+    @Query("SELECT c.version AS version, c.updatedAt AS updatedAt FROM Category c WHERE c.categoryId = :categoryId")
+    Optional<EntityVersion> findVersionById(@Param("categoryId") Long categoryId);
+
+    @Query("SELECT COUNT(c) AS count, COALESCE(SUM(c.categoryId), 0) AS idSum, " +
+            "COALESCE(SUM(c.version), 0) AS versionSum, MAX(c.updatedAt) AS updatedAt FROM Category c")
+    CollectionVersion findCollectionVersion();
+
+    @Query("SELECT c.categoryId FROM Category c")
+    List<Long> findAllIds();
+}
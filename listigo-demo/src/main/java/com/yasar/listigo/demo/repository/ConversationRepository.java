@@ -0,0 +1,69 @@
+package com.yasar.listigo.demo.repository;
+
+import com.yasar.listigo.demo.entity.Conversation;
+import com.yasar.listigo.demo.entity.ConversationId;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+public interface ConversationRepository extends JpaRepository<Conversation, ConversationId>, ConversationRepositoryCustom {
+
+    /**
+     * Records a sent message in its conversation, creating the conversation on its first
+     * message. The receiver's unread count is incremented atomically; the last message is
+     * only replaced by a newer one, so commits arriving out of order cannot roll it back.
+     */
+    @Modifying
+    @Query(value = "INSERT INTO conversations (listing_id, user_a, user_b, last_message_id, last_sender_id, " +
+            "last_message_preview, last_sent_at, unread_a, unread_b) " +
+            "VALUES (:listingId, LEAST(:senderId, :receiverId), GREATEST(:senderId, :receiverId), :messageId, " +
+            ":senderId, :preview, :sentAt, " +
+            "CASE WHEN :receiverId < :senderId THEN 1 ELSE 0 END, " +
+            "CASE WHEN :receiverId > :senderId THEN 1 ELSE 0 END) " +
+            "ON CONFLICT (listing_id, user_a, user_b) DO UPDATE SET " +
+            "unread_a = conversations.unread_a + EXCLUDED.unread_a, " +
+            "unread_b = conversations.unread_b + EXCLUDED.unread_b, " +
+            "last_message_id = CASE WHEN (EXCLUDED.last_sent_at, EXCLUDED.last_message_id) > " +
+            "(conversations.last_sent_at, conversations.last_message_id) " +
+            "THEN EXCLUDED.last_message_id ELSE conversations.last_message_id END, " +
+            "last_sender_id = CASE WHEN (EXCLUDED.last_sent_at, EXCLUDED.last_message_id) > " +
+            "(conversations.last_sent_at, conversations.last_message_id) " +
+            "THEN EXCLUDED.last_sender_id ELSE conversations.last_sender_id END, " +
+            "last_message_preview = CASE WHEN (EXCLUDED.last_sent_at, EXCLUDED.last_message_id) > " +
+            "(conversations.last_sent_at, conversations.last_message_id) " +
+            "THEN EXCLUDED.last_message_preview ELSE conversations.last_message_preview END, " +
+            "last_sent_at = GREATEST(conversations.last_sent_at, EXCLUDED.last_sent_at)",
+            nativeQuery = true)
+    void upsertMessage(
+            @Param("listingId") Long listingId,
+            @Param("senderId") UUID senderId,
+            @Param("receiverId") UUID receiverId,
+            @Param("messageId") Long messageId,
+            @Param("preview") String preview,
+            @Param("sentAt") LocalDateTime sentAt);
+
+    /**
+     * Recounts the user's unread messages in each of their conversations on the listing,
+     * after messages there were marked read.
+     */
+    @Modifying
+    @Query(value = "UPDATE conversations c SET " +
+            "unread_a = CASE WHEN c.user_a = :userId THEN (SELECT COUNT(*) FROM messages m " +
+            "WHERE m.listing_id = c.listing_id AND m.sender_id = c.user_b AND m.receiver_id = c.user_a " +
+            "AND m.is_read = false) ELSE c.unread_a END, " +
+            "unread_b = CASE WHEN c.user_b = :userId THEN (SELECT COUNT(*) FROM messages m " +
+            "WHERE m.listing_id = c.listing_id AND m.sender_id = c.user_a AND m.receiver_id = c.user_b " +
+            "AND m.is_read = false) ELSE c.unread_b END " +
+            "WHERE c.listing_id = :listingId AND (c.user_a = :userId OR c.user_b = :userId)",
+            nativeQuery = true)
+    void refreshUnreadCounts(@Param("listingId") Long listingId, @Param("userId") UUID userId);
+
+    @Modifying
+    @Query(value = "DELETE FROM conversations WHERE listing_id = :listingId " +
+            "AND (user_a = :userId OR user_b = :userId)", nativeQuery = true)
+    void deleteByListingIdAndUserId(@Param("listingId") Long listingId, @Param("userId") UUID userId);
+}
@@ -0,0 +1,23 @@
+package com.yasar.listigo.demo.repository;
+
+import com.yasar.listigo.demo.dto.ConversationDTO;
+import com.yasar.listigo.demo.dto.MessageCursor;
+
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Keyset pagination of a user's inbox, newest conversation first.
+ */
+public interface ConversationRepositoryCustom {
+
+    /**
+     * Returns the next page of the user's conversations.
+     *
+     * @param userId ID of the user
+     * @param cursor latest message of the last conversation of the previous page, or null for the first page
+     * @param limit  maximum number of rows to return
+     * @return conversations after the cursor, ordered by their latest message, newest first
+     */
+    List<ConversationDTO> findInboxPage(UUID userId, MessageCursor cursor, int limit);
+}
@@ -1,36 +1,88 @@
 package com.yasar.listigo.demo.repository;
 
 import com.yasar.listigo.demo.entity.Listing;
+import com.yasar.listigo.demo.repository.projection.EntityVersion;
+import com.yasar.listigo.demo.repository.projection.ListingSearchHit;
+import com.yasar.listigo.demo.repository.projection.ValueCount;
+import com.yasar.listigo.demo.util.SearchHighlights;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 
 import java.util.List;
-import java.util.UUID;
-
-public interface ListingRepository extends JpaRepository<Listing, Long> {
-
-    List<Listing> findByUserUserId(UUID userId);
-
-    @Query(value = "SELECT * FROM listings l WHERE " +
-            "(:categoryId IS NULL OR l.category_id = :categoryId) " +
-            "AND (:brand IS NULL OR l.brand = :brand) " +
-            "AND (:model IS NULL OR l.model = :model) " +
-            "AND (:minYear IS NULL OR l.year >= :minYear) " +
-            "AND (:maxYear IS NULL OR l.year <= :maxYear) " +
-            "AND (:minPrice IS NULL OR l.price >= :minPrice) " +
-            "AND (:maxPrice IS NULL OR l.price <= :maxPrice) " +
-            "AND (:location IS NULL OR l.location = :location) " +
-            "AND (:searchText IS NULL OR to_tsvector('turkish', l.title || ' ' || COALESCE(l.description, '')) @@ to_tsquery('turkish', :searchText))",
+import java.util.Optional;
+import java.util.stream.Stream;
+
+public interface ListingRepository extends JpaRepository<Listing, Long>, ListingRepositoryCustom {
+
+    /**
+     * Streams every listing through a forward-only JDBC cursor. PostgreSQL only honours the
+     * fetch size inside a transaction, so callers must consume the stream in a read-only
+     * transaction and close it when done.
+     *
+     * @return stream of all listings ordered by ID
+     */
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true"),
+            @QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "false")
+    })
+    @Query("SELECT l FROM Listing l ORDER BY l.listingId")
+    Stream<Listing> streamAll();
+
+    /**
+     * Ranked full-text search over the stored, weighted search_vector column. Matching uses
+     * the GIN index; ts_headline is only evaluated for the rows that make it into the page.
+     *
+     * @param query free-form user input, parsed with websearch_to_tsquery
+     * @param limit maximum number of hits
+     * @return hits ordered by ts_rank_cd, best first
+     */
+    @Query(value = "WITH q AS (SELECT websearch_to_tsquery('turkish', :query) AS query), " +
+            "ranked AS (" +
+            "SELECT l.listing_id, l.category_id, l.title, l.description, l.price, l.brand, l.model, " +
+            "l.year, l.mileage, l.location, ts_rank_cd(l.search_vector, q.query) AS rank " +
+            "FROM listings l, q WHERE l.search_vector @@ q.query " +
+            "ORDER BY rank DESC, l.listing_id DESC LIMIT :limit) " +
+            "SELECT r.listing_id AS \"listingId\", r.category_id AS \"categoryId\", r.title AS \"title\", " +
+            "CAST(r.price AS double precision) AS \"price\", r.brand AS \"brand\", r.model AS \"model\", " +
+            "r.year AS \"year\", r.mileage AS \"mileage\", r.location AS \"location\", " +
+            "CAST(r.rank AS double precision) AS \"rank\", " +
+            "ts_headline('turkish', r.title, q.query, " +
+            "'HighlightAll=true, StartSel=" + SearchHighlights.START + ", StopSel=" + SearchHighlights.STOP + "') " +
+            "AS \"titleHighlight\", " +
+            "ts_headline('turkish', COALESCE(r.description, ''), q.query, " +
+            "'MaxWords=35, MinWords=15, MaxFragments=2, StartSel=" + SearchHighlights.START + ", " +
+            "StopSel=" + SearchHighlights.STOP + "') " +
+            "AS \"descriptionSnippet\" " +
+            "FROM ranked r, q ORDER BY r.rank DESC, r.listing_id DESC",
+            nativeQuery = true)
+    List<ListingSearchHit> search(@Param("query") String query, @Param("limit") int limit);
+
+    /**
+     * Returns the IDs of all listings whose search_vector matches the query, using the GIN index.
+     *
+     * @param query free-form user input, parsed with websearch_to_tsquery
+     * @return matching listing IDs in no particular order
+     */
+    @Query(value = "SELECT l.listing_id FROM listings l " +
+            "WHERE l.search_vector @@ websearch_to_tsquery('turkish', :query)",
             nativeQuery = true)
-    List<Listing> findByFilter(
-            @Param("categoryId") Long categoryId,
-            @Param("brand") String brand,
-            @Param("model") String model,
-            @Param("minYear") Integer minYear,
-            @Param("maxYear") Integer maxYear,
-            @Param("minPrice") Double minPrice,
-            @Param("maxPrice") Double maxPrice,
-            @Param("location") String location,
-            @Param("searchText") String searchText);
-}
\ No newline at end of file
+    List<Long> findIdsMatchingText(@Param("query") String query);
+
+    @Query("SELECT l.brand AS value, COUNT(l) AS count FROM Listing l WHERE l.brand IS NOT NULL GROUP BY l.brand")
+    List<ValueCount> countByBrand();
+
+    @Query("SELECT l.model AS value, COUNT(l) AS count FROM Listing l WHERE l.model IS NOT NULL GROUP BY l.model")
+    List<ValueCount> countByModel();
+
+    @Query("SELECT l.location AS value, COUNT(l) AS count FROM Listing l " +
+            "WHERE l.location IS NOT NULL GROUP BY l.location")
+    List<ValueCount> countByLocation();
+
+    @Query("SELECT l.version AS version, l.updatedAt AS updatedAt FROM Listing l WHERE l.listingId = :listingId")
+    Optional<EntityVersion> findVersionById(@Param("listingId") Long listingId);
+}
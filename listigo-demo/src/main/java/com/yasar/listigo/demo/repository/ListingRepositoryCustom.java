@@ -0,0 +1,92 @@
+package com.yasar.listigo.demo.repository;
+
+import com.yasar.listigo.demo.dto.ListingCursor;
+import com.yasar.listigo.demo.dto.ListingDTO;
+import com.yasar.listigo.demo.dto.ListingFilterDTO;
+import com.yasar.listigo.demo.dto.ListingSort;
+import com.yasar.listigo.demo.dto.ListingSummaryDTO;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Keyset (seek) pagination queries for listings. Each page continues strictly after
+ * the cursor row, so the cost of a page does not depend on how deep it is. Rows are
+ * projected straight into DTOs, so a page is exactly one SQL statement.
+ */
+public interface ListingRepositoryCustom {
+
+    /**
+     * Returns the next page of all listings.
+     *
+     * @param sort   sort order of the page
+     * @param cursor last row of the previous page, or null for the first page
+     * @param limit  maximum number of rows to return
+     * @return listings after the cursor
+     */
+    List<ListingDTO> findPage(ListingSort sort, ListingCursor cursor, int limit);
+
+    /**
+     * Returns the next page of listings owned by a user.
+     *
+     * @param userId owner of the listings
+     * @param sort   sort order of the page
+     * @param cursor last row of the previous page, or null for the first page
+     * @param limit  maximum number of rows to return
+     * @return listings after the cursor
+     */
+    List<ListingDTO> findPageByUserId(UUID userId, ListingSort sort, ListingCursor cursor, int limit);
+
+    /**
+     * Returns the next page of listings matching the filter criteria.
+     *
+     * @param filter filter criteria
+     * @param sort   sort order of the page
+     * @param cursor last row of the previous page, or null for the first page
+     * @param limit  maximum number of rows to return
+     * @return listings after the cursor
+     */
+    List<ListingDTO> findPageByFilter(ListingFilterDTO filter, ListingSort sort, ListingCursor cursor, int limit);
+
+    /**
+     * Returns the next page of all listings as summaries.
+     *
+     * @param sort   sort order of the page
+     * @param cursor last row of the previous page, or null for the first page
+     * @param limit  maximum number of rows to return
+     * @return listing summaries after the cursor
+     */
+    List<ListingSummaryDTO> findSummaryPage(ListingSort sort, ListingCursor cursor, int limit);
+
+    /**
+     * Returns the next page of listings owned by a user as summaries.
+     *
+     * @param userId owner of the listings
+     * @param sort   sort order of the page
+     * @param cursor last row of the previous page, or null for the first page
+     * @param limit  maximum number of rows to return
+     * @return listing summaries after the cursor
+     */
+    List<ListingSummaryDTO> findSummaryPageByUserId(UUID userId, ListingSort sort, ListingCursor cursor, int limit);
+
+    /**
+     * Returns the next page of listings matching the filter criteria as summaries.
+     *
+     * @param filter filter criteria
+     * @param sort   sort order of the page
+     * @param cursor last row of the previous page, or null for the first page
+     * @param limit  maximum number of rows to return
+     * @return listing summaries after the cursor
+     */
+    List<ListingSummaryDTO> findSummaryPageByFilter(ListingFilterDTO filter, ListingSort sort, ListingCursor cursor,
+                                                    int limit);
+
+    /**
+     * Returns the listings with the given IDs in one statement.
+     *
+     * @param listingIds IDs to look up
+     * @return found listings in no particular order; missing IDs are skipped
+     */
+    List<ListingDTO> findAllByIds(Collection<Long> listingIds);
+}
@@ -1,22 +1,85 @@
 package com.yasar.listigo.demo.repository;
 
+import com.yasar.listigo.demo.dto.MessageDTO;
 import com.yasar.listigo.demo.entity.Message;
+import com.yasar.listigo.demo.repository.projection.UnreadCount;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.UUID;
 
 public interface MessageRepository extends JpaRepository<Message, Long> {
 
-    @Query("SELECT m FROM Message m WHERE m.listing.listingId = :listingId " +
+    /**
+     * Reads the first page of a conversation straight into DTOs. Sender, receiver and listing
+     * IDs come from the foreign-key columns, so no association is loaded however long the
+     * conversation is. Filtering on the user also authorizes the read: a non-empty page
+     * means the user takes part in the conversation.
+     */
+    @Query("SELECT new com.yasar.listigo.demo.dto.MessageDTO(m.messageId, m.sender.userId, m.receiver.userId, " +
+            "m.listing.listingId, m.content, m.sentAt, m.isRead) FROM Message m " +
+            "WHERE m.listing.listingId = :listingId " +
+            "AND (m.sender.userId = :userId OR m.receiver.userId = :userId) " +
+            "ORDER BY m.sentAt, m.messageId")
+    List<MessageDTO> findDTOsByListingIdAndSenderIdOrReceiverId(
+            @Param("listingId") Long listingId,
+            @Param("userId") UUID userId,
+            Limit limit);
+
+    /**
+     * Reads the page of a conversation following the message at (sentAt, messageId).
+     * The seek condition starts the scan on idx_messages_listing_sent_at right after
+     * the cursor, so a deep page costs the same as the first.
+     */
+    @Query("SELECT new com.yasar.listigo.demo.dto.MessageDTO(m.messageId, m.sender.userId, m.receiver.userId, " +
+            "m.listing.listingId, m.content, m.sentAt, m.isRead) FROM Message m " +
+            "WHERE m.listing.listingId = :listingId " +
+            "AND (m.sender.userId = :userId OR m.receiver.userId = :userId) " +
+            "AND (m.sentAt > :sentAt OR (m.sentAt = :sentAt AND m.messageId > :messageId)) " +
+            "ORDER BY m.sentAt, m.messageId")
+    List<MessageDTO> findDTOsByListingIdAndSenderIdOrReceiverIdAfter(
+            @Param("listingId") Long listingId,
+            @Param("userId") UUID userId,
+            @Param("sentAt") LocalDateTime sentAt,
+            @Param("messageId") Long messageId,
+            Limit limit);
+
+    @Query("SELECT CASE WHEN COUNT(m) > 0 THEN true ELSE false END FROM Message m " +
+            "WHERE m.listing.listingId = :listingId " +
             "AND (m.sender.userId = :userId OR m.receiver.userId = :userId)")
-    List<Message> findByListingIdAndSenderIdOrReceiverId(
+    boolean existsByListingIdAndSenderIdOrReceiverId(
             @Param("listingId") Long listingId,
             @Param("userId") UUID userId);
 
+    /**
+     * Marks every unread message the receiver got in the conversation up to and including
+     * the message at (sentAt, messageId) read, in one statement.
+     *
+     * @return number of messages marked read
+     */
+    @Modifying
+    @Query("UPDATE Message m SET m.isRead = true WHERE m.listing.listingId = :listingId " +
+            "AND m.receiver.userId = :receiverId AND m.isRead = false " +
+            "AND (m.sentAt < :sentAt OR (m.sentAt = :sentAt AND m.messageId <= :messageId))")
+    int markReadUpTo(
+            @Param("listingId") Long listingId,
+            @Param("receiverId") UUID receiverId,
+            @Param("sentAt") LocalDateTime sentAt,
+            @Param("messageId") Long messageId);
+
+    @Query("SELECT COUNT(m) FROM Message m WHERE m.receiver.userId = :receiverId AND m.isRead = false")
+    long countUnreadByReceiverId(@Param("receiverId") UUID receiverId);
+
+    @Query("SELECT m.receiver.userId AS receiverId, COUNT(m) AS count FROM Message m " +
+            "WHERE m.receiver.userId IN :receiverIds AND m.isRead = false GROUP BY m.receiver.userId")
+    List<UnreadCount> countUnreadByReceiverIds(@Param("receiverIds") Collection<UUID> receiverIds);
+
     @Modifying
     @Query("DELETE FROM Message m WHERE m.listing.listingId = :listingId " +
             "AND (m.sender.userId = :userId OR m.receiver.userId = :userId)")
@@ -0,0 +1,37 @@
+package com.yasar.listigo.demo.repository;
+
+import com.yasar.listigo.demo.entity.RefreshToken;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.time.Instant;
+import java.util.UUID;
+
+public interface RefreshTokenRepository extends JpaRepository<RefreshToken, String> {
+
+    /**
+     * Marks the token used unless it already is. Of two concurrent rotations of the same
+     * token only one sees 1.
+     *
+     * @return 1 if this call marked the token, 0 otherwise
+     */
+    @Modifying
+    @Query("UPDATE RefreshToken t SET t.usedAt = :usedAt WHERE t.tokenHash = :tokenHash AND t.usedAt IS NULL")
+    int markUsed(@Param("tokenHash") String tokenHash, @Param("usedAt") Instant usedAt);
+
+    @Modifying
+    @Query("DELETE FROM RefreshToken t WHERE t.familyId = :familyId")
+    int deleteByFamilyId(@Param("familyId") UUID familyId);
+
+    @Modifying
+    @Query("DELETE FROM RefreshToken t WHERE t.userId = :userId")
+    int deleteByUserId(@Param("userId") UUID userId);
+
+    @Modifying
+    @Query(value = "DELETE FROM refresh_tokens WHERE token_hash IN " +
+            "(SELECT token_hash FROM refresh_tokens WHERE expires_at < :now LIMIT :batchSize)",
+            nativeQuery = true)
+    int deleteExpired(@Param("now") Instant now, @Param("batchSize") int batchSize);
+}
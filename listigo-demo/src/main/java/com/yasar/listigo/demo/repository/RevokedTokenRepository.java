@@ -0,0 +1,20 @@
+package com.yasar.listigo.demo.repository;
+
+import com.yasar.listigo.demo.entity.RevokedToken;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.UUID;
+
+public interface RevokedTokenRepository extends JpaRepository<RevokedToken, UUID> {
+
+    List<RevokedToken> findByExpiresAtAfter(Instant now);
+
+    @Modifying
+    @Query("DELETE FROM RevokedToken t WHERE t.expiresAt <= :now")
+    int deleteExpired(@Param("now") Instant now);
+}
@@ -0,0 +1,20 @@
+package com.yasar.listigo.demo.repository;
+
+import com.yasar.listigo.demo.entity.UserTokenRevocation;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.UUID;
+
+public interface UserTokenRevocationRepository extends JpaRepository<UserTokenRevocation, UUID> {
+
+    List<UserTokenRevocation> findByExpiresAtAfter(Instant now);
+
+    @Modifying
+    @Query("DELETE FROM UserTokenRevocation r WHERE r.expiresAt <= :now")
+    int deleteExpired(@Param("now") Instant now);
+}
@@ -0,0 +1,83 @@
+package com.yasar.listigo.demo.repository.impl;
+
+import com.yasar.listigo.demo.dto.ConversationDTO;
+import com.yasar.listigo.demo.dto.MessageCursor;
+import com.yasar.listigo.demo.repository.ConversationRepositoryCustom;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.hibernate.query.NativeQuery;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+public class ConversationRepositoryCustomImpl implements ConversationRepositoryCustom {
+
+    private static final String FIRST_PAGE_SQL = inboxSql(false);
+    private static final String NEXT_PAGE_SQL = inboxSql(true);
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public List<ConversationDTO> findInboxPage(UUID userId, MessageCursor cursor, int limit) {
+        NativeQuery<Object[]> query = entityManager.createNativeQuery(cursor == null ? FIRST_PAGE_SQL : NEXT_PAGE_SQL)
+                .unwrap(NativeQuery.class);
+        query.addScalar("listing_id", Long.class);
+        query.addScalar("title", String.class);
+        query.addScalar("counterpart_id", String.class);
+        query.addScalar("last_message_id", Long.class);
+        query.addScalar("last_sender_id", String.class);
+        query.addScalar("last_message_preview", String.class);
+        query.addScalar("last_sent_at", LocalDateTime.class);
+        query.addScalar("unread_count", Integer.class);
+        query.setParameter("userId", userId);
+        if (cursor != null) {
+            query.setParameter("cursorSentAt", cursor.getSentAt());
+            query.setParameter("cursorMessageId", cursor.getMessageId());
+        }
+        query.setParameter("limit", limit);
+
+        List<Object[]> rows = query.getResultList();
+        List<ConversationDTO> conversations = new ArrayList<>(rows.size());
+        for (Object[] row : rows) {
+            ConversationDTO dto = new ConversationDTO();
+            dto.setListingId((Long) row[0]);
+            dto.setListingTitle((String) row[1]);
+            dto.setCounterpartId((String) row[2]);
+            dto.setLastMessageId((Long) row[3]);
+            dto.setLastSenderId((String) row[4]);
+            dto.setLastMessagePreview((String) row[5]);
+            dto.setLastSentAt((LocalDateTime) row[6]);
+            dto.setUnreadCount((Integer) row[7]);
+            conversations.add(dto);
+        }
+        return conversations;
+    }
+
+    /**
+     * A user is user_a of some conversations and user_b of others. Each side is read with a
+     * seek on its own (user, last_sent_at DESC, last_message_id DESC) index and limited
+     * before the two are merged, so a page never reads more than twice its size.
+     */
+    private static String inboxSql(boolean afterCursor) {
+        String seek = afterCursor
+                ? " AND (c.last_sent_at, c.last_message_id) < (:cursorSentAt, :cursorMessageId)"
+                : "";
+        return "SELECT inbox.listing_id, l.title, CAST(inbox.counterpart_id AS text) AS counterpart_id, " +
+                "inbox.last_message_id, CAST(inbox.last_sender_id AS text) AS last_sender_id, " +
+                "inbox.last_message_preview, inbox.last_sent_at, inbox.unread_count FROM (" +
+                side("user_a", "user_b", "unread_a", seek) + " UNION ALL " + side("user_b", "user_a", "unread_b", seek) +
+                ") inbox JOIN listings l ON l.listing_id = inbox.listing_id " +
+                "ORDER BY inbox.last_sent_at DESC, inbox.last_message_id DESC LIMIT :limit";
+    }
+
+    private static String side(String userColumn, String counterpartColumn, String unreadColumn, String seek) {
+        return "(SELECT c.listing_id, c." + counterpartColumn + " AS counterpart_id, c.last_message_id, " +
+                "c.last_sender_id, c.last_message_preview, c.last_sent_at, c." + unreadColumn + " AS unread_count " +
+                "FROM conversations c WHERE c." + userColumn + " = :userId" + seek +
+                " ORDER BY c.last_sent_at DESC, c.last_message_id DESC LIMIT :limit)";
+    }
+}
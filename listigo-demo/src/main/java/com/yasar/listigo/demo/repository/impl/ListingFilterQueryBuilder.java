@@ -0,0 +1,97 @@
+package com.yasar.listigo.demo.repository.impl;
+
+import com.yasar.listigo.demo.dto.ListingFilterDTO;
+import org.hibernate.query.NativeQuery;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.function.Function;
+
+/**
+ * Builds the WHERE clause of listing filter queries from only the criteria that are
+ * actually set. The clause text depends solely on which fields are present (the
+ * "shape"), so it is computed once per shape and reused. Identical SQL per shape lets
+ * Hibernate and the PostgreSQL driver reuse one prepared statement per filter
+ * combination, and each of those statements gets a plan that can use the matching
+ * index (brand/model, location/price, ...) instead of one generic catch-all plan.
+ */
+class ListingFilterQueryBuilder {
+
+    private enum Criterion {
+        CATEGORY("l.category_id = :categoryId", "categoryId", ListingFilterDTO::getCategoryId),
+        BRAND("l.brand = :brand", "brand", ListingFilterDTO::getBrand),
+        MODEL("l.model = :model", "model", ListingFilterDTO::getModel),
+        MIN_YEAR("l.year >= :minYear", "minYear", ListingFilterDTO::getMinYear),
+        MAX_YEAR("l.year <= :maxYear", "maxYear", ListingFilterDTO::getMaxYear),
+        MIN_PRICE("l.price >= :minPrice", "minPrice", filter -> toNumeric(filter.getMinPrice())),
+        MAX_PRICE("l.price <= :maxPrice", "maxPrice", filter -> toNumeric(filter.getMaxPrice())),
+        LOCATION("l.location = :location", "location", ListingFilterDTO::getLocation),
+        SEARCH_TEXT("l.search_vector @@ websearch_to_tsquery('turkish', :searchText)",
+                "searchText", ListingFilterDTO::getSearchText);
+
+        private final String condition;
+        private final String parameter;
+        private final Function<ListingFilterDTO, Object> value;
+
+        Criterion(String condition, String parameter, Function<ListingFilterDTO, Object> value) {
+            this.condition = condition;
+            this.parameter = parameter;
+            this.value = value;
+        }
+
+        Object valueOf(ListingFilterDTO filter) {
+            Object result = value.apply(filter);
+            if (result instanceof String text && text.isBlank()) {
+                return null;
+            }
+            return result;
+        }
+    }
+
+    private final ConcurrentMap<Integer, List<String>> conditionsByShape = new ConcurrentHashMap<>();
+
+    /**
+     * Returns a bit mask with one bit set for every criterion present in the filter.
+     */
+    int shapeOf(ListingFilterDTO filter) {
+        int shape = 0;
+        for (Criterion criterion : Criterion.values()) {
+            if (criterion.valueOf(filter) != null) {
+                shape |= 1 << criterion.ordinal();
+            }
+        }
+        return shape;
+    }
+
+    List<String> conditionsFor(int shape) {
+        return conditionsByShape.computeIfAbsent(shape, key -> {
+            List<String> conditions = new ArrayList<>();
+            for (Criterion criterion : Criterion.values()) {
+                if ((key & (1 << criterion.ordinal())) != 0) {
+                    conditions.add(criterion.condition);
+                }
+            }
+            return List.copyOf(conditions);
+        });
+    }
+
+    void bind(NativeQuery<?> query, ListingFilterDTO filter) {
+        for (Criterion criterion : Criterion.values()) {
+            Object value = criterion.valueOf(filter);
+            if (value != null) {
+                query.setParameter(criterion.parameter, value);
+            }
+        }
+    }
+
+    /**
+     * Prices are NUMERIC in the database. Binding them as BigDecimal keeps the comparison
+     * on the column type, so idx_listings_price and idx_listings_location_price stay usable.
+     */
+    private static BigDecimal toNumeric(Double price) {
+        return price == null ? null : BigDecimal.valueOf(price);
+    }
+}
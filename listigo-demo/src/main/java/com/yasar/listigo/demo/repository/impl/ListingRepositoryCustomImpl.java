@@ -0,0 +1,242 @@
+package com.yasar.listigo.demo.repository.impl;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.yasar.listigo.demo.dto.ListingCursor;
+import com.yasar.listigo.demo.dto.ListingDTO;
+import com.yasar.listigo.demo.dto.ListingFilterDTO;
+import com.yasar.listigo.demo.dto.ListingSort;
+import com.yasar.listigo.demo.dto.ListingSummaryDTO;
+import com.yasar.listigo.demo.repository.ListingRepositoryCustom;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.hibernate.query.NativeQuery;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+public class ListingRepositoryCustomImpl implements ListingRepositoryCustom {
+
+    private static final TypeReference<List<String>> PHOTO_LIST = new TypeReference<>() {
+    };
+
+    private record Scalar(String alias, Class<?> type) {
+    }
+
+    /**
+     * Column lists the seek queries can select. Both read the owner and category straight
+     * from the foreign-key columns, so building a page never touches an association.
+     */
+    private enum Projection {
+        DETAIL("l.listing_id, CAST(l.user_id AS text) AS user_id, l.category_id, l.title, l.description, " +
+                "CAST(l.price AS double precision) AS price, l.brand, l.model, l.year, l.mileage, l.location, " +
+                "CAST(l.photos AS text) AS photos, l.created_at",
+                List.of(new Scalar("listing_id", Long.class), new Scalar("user_id", String.class),
+                        new Scalar("category_id", Long.class), new Scalar("title", String.class),
+                        new Scalar("description", String.class), new Scalar("price", Double.class),
+                        new Scalar("brand", String.class), new Scalar("model", String.class),
+                        new Scalar("year", Integer.class), new Scalar("mileage", Integer.class),
+                        new Scalar("location", String.class), new Scalar("photos", String.class),
+                        new Scalar("created_at", LocalDateTime.class))),
+        /**
+         * Skips the description TEXT and extracts only the first photo from the jsonb array.
+         */
+        SUMMARY("l.listing_id, l.title, CAST(l.price AS double precision) AS price, l.year, l.mileage, " +
+                "l.location, l.photos->>0 AS photo, l.created_at",
+                List.of(new Scalar("listing_id", Long.class), new Scalar("title", String.class),
+                        new Scalar("price", Double.class), new Scalar("year", Integer.class),
+                        new Scalar("mileage", Integer.class), new Scalar("location", String.class),
+                        new Scalar("photo", String.class), new Scalar("created_at", LocalDateTime.class)));
+
+        private final String columns;
+        private final List<Scalar> scalars;
+
+        Projection(String columns, List<Scalar> scalars) {
+            this.columns = columns;
+            this.scalars = scalars;
+        }
+    }
+
+    private final ListingFilterQueryBuilder filterQueryBuilder = new ListingFilterQueryBuilder();
+
+    /**
+     * Seek query text keyed by (projection, base query, filter shape, sort, first page or not).
+     */
+    private final ConcurrentMap<String, String> sqlByShape = new ConcurrentHashMap<>();
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    private final ObjectMapper objectMapper;
+
+    public ListingRepositoryCustomImpl(ObjectMapper objectMapper) {
+        this.objectMapper = objectMapper;
+    }
+
+    @Override
+    public List<ListingDTO> findPage(ListingSort sort, ListingCursor cursor, int limit) {
+        return toListingDTOs(allQuery(Projection.DETAIL, sort, cursor, limit).getResultList());
+    }
+
+    @Override
+    public List<ListingDTO> findPageByUserId(UUID userId, ListingSort sort, ListingCursor cursor, int limit) {
+        return toListingDTOs(userQuery(Projection.DETAIL, userId, sort, cursor, limit).getResultList());
+    }
+
+    @Override
+    public List<ListingDTO> findPageByFilter(ListingFilterDTO filter, ListingSort sort, ListingCursor cursor, int limit) {
+        return toListingDTOs(filterQuery(Projection.DETAIL, filter, sort, cursor, limit).getResultList());
+    }
+
+    @Override
+    public List<ListingSummaryDTO> findSummaryPage(ListingSort sort, ListingCursor cursor, int limit) {
+        return toSummaries(allQuery(Projection.SUMMARY, sort, cursor, limit).getResultList());
+    }
+
+    @Override
+    public List<ListingSummaryDTO> findSummaryPageByUserId(UUID userId, ListingSort sort, ListingCursor cursor,
+                                                           int limit) {
+        return toSummaries(userQuery(Projection.SUMMARY, userId, sort, cursor, limit).getResultList());
+    }
+
+    @Override
+    public List<ListingSummaryDTO> findSummaryPageByFilter(ListingFilterDTO filter, ListingSort sort,
+                                                           ListingCursor cursor, int limit) {
+        return toSummaries(filterQuery(Projection.SUMMARY, filter, sort, cursor, limit).getResultList());
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public List<ListingDTO> findAllByIds(Collection<Long> listingIds) {
+        String sql = sqlByShape.computeIfAbsent(Projection.DETAIL + ":ids",
+                key -> "SELECT " + Projection.DETAIL.columns + " FROM listings l WHERE l.listing_id IN (:listingIds)");
+        NativeQuery<Object[]> query = entityManager.createNativeQuery(sql).unwrap(NativeQuery.class);
+        addScalars(query, Projection.DETAIL);
+        query.setParameterList("listingIds", listingIds);
+        return toListingDTOs(query.getResultList());
+    }
+
+    private NativeQuery<Object[]> allQuery(Projection projection, ListingSort sort, ListingCursor cursor, int limit) {
+        return buildSeekQuery(projection, "all", List.of(), sort, cursor, limit);
+    }
+
+    private NativeQuery<Object[]> userQuery(Projection projection, UUID userId, ListingSort sort,
+                                            ListingCursor cursor, int limit) {
+        NativeQuery<Object[]> query = buildSeekQuery(projection, "user", List.of("l.user_id = :userId"),
+                sort, cursor, limit);
+        query.setParameter("userId", userId);
+        return query;
+    }
+
+    private NativeQuery<Object[]> filterQuery(Projection projection, ListingFilterDTO filter, ListingSort sort,
+                                              ListingCursor cursor, int limit) {
+        int shape = filterQueryBuilder.shapeOf(filter);
+        NativeQuery<Object[]> query = buildSeekQuery(projection, "filter:" + shape,
+                filterQueryBuilder.conditionsFor(shape), sort, cursor, limit);
+        filterQueryBuilder.bind(query, filter);
+        return query;
+    }
+
+    /**
+     * Builds the seek query. The row-value comparison on (sort column, listing_id) lets
+     * PostgreSQL start the index scan on idx_listings_created_at / idx_listings_price right
+     * after the cursor instead of counting past an OFFSET.
+     */
+    @SuppressWarnings("unchecked")
+    private NativeQuery<Object[]> buildSeekQuery(Projection projection, String base, List<String> conditions,
+                                                 ListingSort sort, ListingCursor cursor, int limit) {
+        String shapeKey = projection + ":" + base + ":" + sort + ":" + (cursor != null);
+        String sql = sqlByShape.computeIfAbsent(shapeKey,
+                key -> seekSql(projection, conditions, sort, cursor != null));
+
+        NativeQuery<Object[]> query = entityManager.createNativeQuery(sql).unwrap(NativeQuery.class);
+        addScalars(query, projection);
+        if (cursor != null) {
+            query.setParameter("cursorKey", cursor.parsedKey());
+            query.setParameter("cursorId", cursor.getListingId());
+        }
+        query.setParameter("limit", limit);
+        return query;
+    }
+
+    private static void addScalars(NativeQuery<Object[]> query, Projection projection) {
+        for (Scalar scalar : projection.scalars) {
+            query.addScalar(scalar.alias(), scalar.type());
+        }
+    }
+
+    private String seekSql(Projection projection, List<String> conditions, ListingSort sort, boolean afterCursor) {
+        String column = "l." + sort.getColumn();
+        String direction = sort.isDescending() ? "DESC" : "ASC";
+        List<String> where = new ArrayList<>(conditions);
+        if (afterCursor) {
+            String operator = sort.isDescending() ? "<" : ">";
+            where.add("(" + column + ", l.listing_id) " + operator + " (:cursorKey, :cursorId)");
+        }
+
+        StringBuilder sql = new StringBuilder("SELECT ").append(projection.columns).append(" FROM listings l");
+        if (!where.isEmpty()) {
+            sql.append(" WHERE ").append(String.join(" AND ", where));
+        }
+        sql.append(" ORDER BY ").append(column).append(' ').append(direction)
+                .append(", l.listing_id ").append(direction)
+                .append(" LIMIT :limit");
+        return sql.toString();
+    }
+
+    private List<ListingDTO> toListingDTOs(List<Object[]> rows) {
+        List<ListingDTO> listings = new ArrayList<>(rows.size());
+        for (Object[] row : rows) {
+            ListingDTO dto = new ListingDTO();
+            dto.setListingId((Long) row[0]);
+            dto.setUserId((String) row[1]);
+            dto.setCategoryId((Long) row[2]);
+            dto.setTitle((String) row[3]);
+            dto.setDescription((String) row[4]);
+            dto.setPrice((Double) row[5]);
+            dto.setBrand((String) row[6]);
+            dto.setModel((String) row[7]);
+            dto.setYear((Integer) row[8]);
+            dto.setMileage((Integer) row[9]);
+            dto.setLocation((String) row[10]);
+            dto.setPhotos(parsePhotos(dto.getListingId(), (String) row[11]));
+            dto.setCreatedAt((LocalDateTime) row[12]);
+            listings.add(dto);
+        }
+        return listings;
+    }
+
+    private static List<ListingSummaryDTO> toSummaries(List<Object[]> rows) {
+        List<ListingSummaryDTO> summaries = new ArrayList<>(rows.size());
+        for (Object[] row : rows) {
+            ListingSummaryDTO dto = new ListingSummaryDTO();
+            dto.setListingId((Long) row[0]);
+            dto.setTitle((String) row[1]);
+            dto.setPrice((Double) row[2]);
+            dto.setYear((Integer) row[3]);
+            dto.setMileage((Integer) row[4]);
+            dto.setLocation((String) row[5]);
+            dto.setPhoto((String) row[6]);
+            dto.setCreatedAt((LocalDateTime) row[7]);
+            summaries.add(dto);
+        }
+        return summaries;
+    }
+
+    private List<String> parsePhotos(Long listingId, String json) {
+        if (json == null) {
+            return new ArrayList<>();
+        }
+        try {
+            return objectMapper.readValue(json, PHOTO_LIST);
+        } catch (JsonProcessingException ex) {
+            throw new IllegalStateException("Malformed photos column of listing " + listingId, ex);
+        }
+    }
+}
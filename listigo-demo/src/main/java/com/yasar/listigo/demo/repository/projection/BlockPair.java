@@ -0,0 +1,13 @@
+package com.yasar.listigo.demo.repository.projection;
+
+import java.util.UUID;
+
+/**
+ * A block relationship without its surrogate key.
+ */
+public interface BlockPair {
+
+    UUID getBlockerId();
+
+    UUID getBlockedId();
+}
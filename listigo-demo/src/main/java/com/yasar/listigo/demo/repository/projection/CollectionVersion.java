@@ -0,0 +1,17 @@
+package com.yasar.listigo.demo.repository.projection;
+
+import java.time.LocalDateTime;
+
+/**
+ * Aggregate over a whole table that changes whenever a row is added, removed or updated.
+ */
+public interface CollectionVersion {
+
+    Long getCount();
+
+    Long getIdSum();
+
+    Long getVersionSum();
+
+    LocalDateTime getUpdatedAt();
+}
@@ -0,0 +1,13 @@
+package com.yasar.listigo.demo.repository.projection;
+
+import java.time.LocalDateTime;
+
+/**
+ * Version and modification time of a single row, read without loading the entity.
+ */
+public interface EntityVersion {
+
+    Long getVersion();
+
+    LocalDateTime getUpdatedAt();
+}
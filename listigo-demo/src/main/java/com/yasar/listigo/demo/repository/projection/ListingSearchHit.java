@@ -0,0 +1,31 @@
+package com.yasar.listigo.demo.repository.projection;
+
+/**
+ * Row returned by the ranked full-text search query.
+ */
+public interface ListingSearchHit {
+
+    Long getListingId();
+
+    Long getCategoryId();
+
+    String getTitle();
+
+    Double getPrice();
+
+    String getBrand();
+
+    String getModel();
+
+    Integer getYear();
+
+    Integer getMileage();
+
+    String getLocation();
+
+    Double getRank();
+
+    String getTitleHighlight();
+
+    String getDescriptionSnippet();
+}
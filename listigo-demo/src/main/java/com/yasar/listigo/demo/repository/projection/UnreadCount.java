@@ -0,0 +1,13 @@
+package com.yasar.listigo.demo.repository.projection;
+
+import java.util.UUID;
+
+/**
+ * Number of unread messages a receiver has.
+ */
+public interface UnreadCount {
+
+    UUID getReceiverId();
+
+    Long getCount();
+}
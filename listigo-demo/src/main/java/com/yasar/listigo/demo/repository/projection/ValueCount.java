@@ -0,0 +1,11 @@
+package com.yasar.listigo.demo.repository.projection;
+
+/**
+ * A distinct column value together with the number of listings using it.
+ */
+public interface ValueCount {
+
+    String getValue();
+
+    Long getCount();
+}
@@ -0,0 +1,7 @@
+package com.yasar.listigo.demo.search;
+
+/**
+ * A completion suggested by the autocomplete index together with the number of listings using it.
+ */
+public record Completion(String value, int count) {
+}
@@ -0,0 +1,125 @@
+package com.yasar.listigo.demo.search;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Immutable prefix trie over case-folded values. Every node caches the indices of the
+ * best {@code maxSize} values below it, so a lookup walks the prefix and copies at most
+ * {@code maxSize} entries regardless of how many values share the prefix.
+ * Values are numbered by rank (most used first), which makes "best" simply "smallest index".
+ */
+final class CompletionTrie {
+
+    static final CompletionTrie EMPTY = build(Map.of(), 1);
+
+    private final String[] values;
+    private final int[] counts;
+    private final Node root;
+
+    private static final class Node {
+        private char[] labels;
+        private Node[] children;
+        private int[] top;
+    }
+
+    private CompletionTrie(String[] values, int[] counts, Node root) {
+        this.values = values;
+        this.counts = counts;
+        this.root = root;
+    }
+
+    /**
+     * Builds a trie keeping the {@code maxSize} most used values on every node.
+     *
+     * @param usage number of listings per distinct value
+     * @param maxSize maximum number of completions a lookup can return
+     */
+    static CompletionTrie build(Map<String, Integer> usage, int maxSize) {
+        List<Map.Entry<String, Integer>> ranked = new ArrayList<>(usage.entrySet());
+        ranked.sort(Map.Entry.<String, Integer>comparingByValue(Comparator.reverseOrder())
+                .thenComparing(Map.Entry.comparingByKey()));
+
+        String[] values = new String[ranked.size()];
+        int[] counts = new int[ranked.size()];
+        BuildNode root = new BuildNode();
+        for (int index = 0; index < values.length; index++) {
+            values[index] = ranked.get(index).getKey();
+            counts[index] = ranked.get(index).getValue();
+
+            BuildNode node = root;
+            String key = TurkishTokenizer.fold(values[index]);
+            for (int i = 0; i < key.length(); i++) {
+                node = node.children.computeIfAbsent(key.charAt(i), c -> new BuildNode());
+            }
+            node.terminal.add(index);
+        }
+        return new CompletionTrie(values, counts, root.freeze(maxSize));
+    }
+
+    /**
+     * Returns the most used values whose folded form starts with the folded prefix.
+     *
+     * @param prefix typed prefix; an empty prefix matches every value
+     * @param limit  maximum number of completions, at most the {@code maxSize} the trie was built with
+     * @return completions, most used first
+     */
+    List<Completion> complete(String prefix, int limit) {
+        String key = TurkishTokenizer.fold(prefix);
+        Node node = root;
+        for (int i = 0; i < key.length() && node != null; i++) {
+            int child = Arrays.binarySearch(node.labels, key.charAt(i));
+            node = child < 0 ? null : node.children[child];
+        }
+        if (node == null) {
+            return List.of();
+        }
+
+        int size = Math.min(limit, node.top.length);
+        List<Completion> completions = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            completions.add(new Completion(values[node.top[i]], counts[node.top[i]]));
+        }
+        return completions;
+    }
+
+    int size() {
+        return values.length;
+    }
+
+    private static final class BuildNode {
+        private final TreeMap<Character, BuildNode> children = new TreeMap<>();
+        private final List<Integer> terminal = new ArrayList<>(1);
+
+        Node freeze(int maxSize) {
+            Node node = new Node();
+            node.labels = new char[children.size()];
+            node.children = new Node[children.size()];
+
+            int[] candidates = terminal.stream().mapToInt(Integer::intValue).toArray();
+            int i = 0;
+            for (Map.Entry<Character, BuildNode> child : children.entrySet()) {
+                node.labels[i] = child.getKey();
+                node.children[i] = child.getValue().freeze(maxSize);
+                candidates = mergeTop(candidates, node.children[i].top, maxSize);
+                i++;
+            }
+            node.top = candidates.length > maxSize ? Arrays.copyOf(candidates, maxSize) : candidates;
+            return node;
+        }
+
+        private static int[] mergeTop(int[] left, int[] right, int maxSize) {
+            int[] merged = new int[Math.min(maxSize, left.length + right.length)];
+            int l = 0;
+            int r = 0;
+            for (int i = 0; i < merged.length; i++) {
+                merged[i] = r >= right.length || (l < left.length && left[l] < right[r]) ? left[l++] : right[r++];
+            }
+            return merged;
+        }
+    }
+}
@@ -0,0 +1,108 @@
+package com.yasar.listigo.demo.search;
+
+import java.util.Arrays;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Immutable slice of the inverted index. Documents are addressed by their ordinal, the
+ * position of the document ID in the sorted {@link #docIds} array, and posting lists hold
+ * ordinals and term frequencies as parallel primitive arrays. Deleting a document never
+ * touches the postings; it returns a copy of the segment with the ordinal added to the
+ * sorted tombstone array, which is dropped again when the segment is merged.
+ */
+final class IndexSegment {
+
+    private static final AtomicLong SEQUENCE = new AtomicLong();
+    private static final int[] EMPTY = new int[0];
+
+    record Postings(int[] ordinals, int[] frequencies) {
+    }
+
+    private final long id;
+    private final long[] docIds;
+    private final int[] docLengths;
+    private final long totalLength;
+    private final Map<String, Postings> postings;
+    private final int[] deleted;
+
+    IndexSegment(long[] docIds, int[] docLengths, Map<String, Postings> postings) {
+        this(SEQUENCE.incrementAndGet(), docIds, docLengths, Arrays.stream(docLengths).asLongStream().sum(),
+                postings, EMPTY);
+    }
+
+    private IndexSegment(long id, long[] docIds, int[] docLengths, long totalLength,
+                         Map<String, Postings> postings, int[] deleted) {
+        this.id = id;
+        this.docIds = docIds;
+        this.docLengths = docLengths;
+        this.totalLength = totalLength;
+        this.postings = postings;
+        this.deleted = deleted;
+    }
+
+    long id() {
+        return id;
+    }
+
+    int size() {
+        return docIds.length;
+    }
+
+    int liveCount() {
+        return docIds.length - deleted.length;
+    }
+
+    int deletedCount() {
+        return deleted.length;
+    }
+
+    long totalLength() {
+        return totalLength;
+    }
+
+    long docId(int ordinal) {
+        return docIds[ordinal];
+    }
+
+    int docLength(int ordinal) {
+        return docLengths[ordinal];
+    }
+
+    Postings postings(String term) {
+        return postings.get(term);
+    }
+
+    Map<String, Postings> allPostings() {
+        return postings;
+    }
+
+    int[] deletedOrdinals() {
+        return deleted;
+    }
+
+    /**
+     * @return ordinal of the document if it is live in this segment, otherwise -1
+     */
+    int liveOrdinalOf(long docId) {
+        int ordinal = Arrays.binarySearch(docIds, docId);
+        return ordinal >= 0 && !isDeleted(ordinal) ? ordinal : -1;
+    }
+
+    boolean isDeleted(int ordinal) {
+        return deleted.length > 0 && Arrays.binarySearch(deleted, ordinal) >= 0;
+    }
+
+    IndexSegment withDeleted(int ordinal) {
+        int position = Arrays.binarySearch(deleted, ordinal);
+        if (position >= 0) {
+            return this;
+        }
+        int insertAt = -position - 1;
+        int[] copy = new int[deleted.length + 1];
+        System.arraycopy(deleted, 0, copy, 0, insertAt);
+        copy[insertAt] = ordinal;
+        System.arraycopy(deleted, insertAt, copy, insertAt + 1, deleted.length - insertAt);
+        return new IndexSegment(id, docIds, docLengths, totalLength, postings, copy);
+    }
+}
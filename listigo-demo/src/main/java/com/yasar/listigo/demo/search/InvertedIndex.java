@@ -0,0 +1,256 @@
+package com.yasar.listigo.demo.search;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Set;
+
+/**
+ * Segmented inverted index with BM25 ranking.
+ * <p>
+ * Readers work on an immutable list of immutable segments published through a volatile
+ * field, so searches never take a lock. Writers are serialised: an update tombstones the
+ * old copy of the document and appends a new single-document segment. {@link #merge()}
+ * folds the small segments back together in the background.
+ */
+public class InvertedIndex {
+
+    private static final double K1 = 1.2;
+    private static final double B = 0.75;
+    private static final int SMALL_SEGMENT_RATIO = 10;
+    private static final double MAX_DELETED_RATIO = 0.2;
+
+    private final Object writeLock = new Object();
+    private volatile List<IndexSegment> segments = List.of();
+
+    /**
+     * Replaces the whole index with one segment.
+     */
+    public void reset(SegmentSource source) {
+        SegmentBuilder builder = new SegmentBuilder();
+        source.forEach((docId, frequencies) -> builder.add(docId, frequencies));
+        IndexSegment segment = builder.build();
+        synchronized (writeLock) {
+            segments = List.of(segment);
+        }
+    }
+
+    /**
+     * Adds or replaces a document.
+     *
+     * @param docId       document ID
+     * @param frequencies term frequencies of the new version of the document
+     */
+    public void upsert(long docId, Map<String, Integer> frequencies) {
+        SegmentBuilder builder = new SegmentBuilder();
+        builder.add(docId, frequencies);
+        IndexSegment added = builder.build();
+        synchronized (writeLock) {
+            List<IndexSegment> next = tombstone(segments, docId);
+            next.add(added);
+            segments = List.copyOf(next);
+        }
+    }
+
+    public void delete(long docId) {
+        synchronized (writeLock) {
+            segments = List.copyOf(tombstone(segments, docId));
+        }
+    }
+
+    public int size() {
+        return segments.stream().mapToInt(IndexSegment::liveCount).sum();
+    }
+
+    public int segmentCount() {
+        return segments.size();
+    }
+
+    /**
+     * Finds documents containing every term of the query, best BM25 score first.
+     *
+     * @param query free text query
+     * @param limit maximum number of hits
+     * @return hits in descending score order
+     */
+    public List<SearchHit> search(String query, int limit) {
+        Set<String> terms = new LinkedHashSet<>(TurkishTokenizer.tokenize(query));
+        List<IndexSegment> view = segments;
+        if (terms.isEmpty() || view.isEmpty() || limit <= 0) {
+            return List.of();
+        }
+
+        long documents = 0;
+        long totalLength = 0;
+        for (IndexSegment segment : view) {
+            documents += segment.size();
+            totalLength += segment.totalLength();
+        }
+        double averageLength = documents == 0 ? 1 : (double) totalLength / documents;
+
+        Map<String, Double> idf = new HashMap<>();
+        for (String term : terms) {
+            long df = 0;
+            for (IndexSegment segment : view) {
+                IndexSegment.Postings postings = segment.postings(term);
+                df += postings == null ? 0 : postings.ordinals().length;
+            }
+            if (df == 0) {
+                return List.of();
+            }
+            idf.put(term, Math.log(1 + (documents - df + 0.5) / (df + 0.5)));
+        }
+
+        Comparator<SearchHit> worstFirst = Comparator.comparingDouble(SearchHit::score)
+                .thenComparing(SearchHit::docId, Comparator.reverseOrder());
+        PriorityQueue<SearchHit> top = new PriorityQueue<>(limit + 1, worstFirst);
+        for (IndexSegment segment : view) {
+            collect(segment, terms, idf, averageLength, top, limit);
+        }
+
+        List<SearchHit> hits = new ArrayList<>(top);
+        hits.sort(worstFirst.reversed());
+        return hits;
+    }
+
+    /**
+     * Merges small segments into one, or everything into one when the largest segment has
+     * accumulated too many deletions. Writes that happen while the merge runs are kept: new
+     * segments are carried over and new tombstones are re-applied to the merged segment.
+     *
+     * @return true if a merge was performed
+     */
+    public boolean merge() {
+        List<IndexSegment> view = segments;
+        if (view.size() < 2 && (view.isEmpty() || deletedRatio(view.get(0)) <= MAX_DELETED_RATIO)) {
+            return false;
+        }
+
+        IndexSegment largest = view.stream().max(Comparator.comparingInt(IndexSegment::size)).orElseThrow();
+        int smallTotal = view.stream().filter(segment -> segment != largest).mapToInt(IndexSegment::size).sum();
+        boolean full = deletedRatio(largest) > MAX_DELETED_RATIO || smallTotal * SMALL_SEGMENT_RATIO > largest.size();
+        List<IndexSegment> sources = full ? view : view.stream().filter(segment -> segment != largest).toList();
+        if (sources.size() < 2 && !full) {
+            return false;
+        }
+
+        IndexSegment merged = SegmentBuilder.merge(sources);
+        synchronized (writeLock) {
+            Map<Long, IndexSegment> current = new HashMap<>();
+            segments.forEach(segment -> current.put(segment.id(), segment));
+            if (!sources.stream().allMatch(source -> current.containsKey(source.id()))) {
+                return false;
+            }
+            for (IndexSegment source : sources) {
+                IndexSegment latest = current.get(source.id());
+                for (int ordinal : newlyDeleted(source, latest)) {
+                    int mergedOrdinal = merged.liveOrdinalOf(source.docId(ordinal));
+                    if (mergedOrdinal >= 0) {
+                        merged = merged.withDeleted(mergedOrdinal);
+                    }
+                }
+            }
+
+            Set<Long> sourceIds = new LinkedHashSet<>();
+            sources.forEach(source -> sourceIds.add(source.id()));
+            List<IndexSegment> next = new ArrayList<>();
+            next.add(merged);
+            segments.stream().filter(segment -> !sourceIds.contains(segment.id())).forEach(next::add);
+            segments = List.copyOf(next);
+        }
+        return true;
+    }
+
+    private void collect(IndexSegment segment, Set<String> terms, Map<String, Double> idf,
+                         double averageLength, PriorityQueue<SearchHit> top, int limit) {
+        List<IndexSegment.Postings> lists = new ArrayList<>(terms.size());
+        List<Double> weights = new ArrayList<>(terms.size());
+        for (String term : terms) {
+            IndexSegment.Postings postings = segment.postings(term);
+            if (postings == null) {
+                return;
+            }
+            lists.add(postings);
+            weights.add(idf.get(term));
+        }
+
+        int rarest = 0;
+        for (int i = 1; i < lists.size(); i++) {
+            if (lists.get(i).ordinals().length < lists.get(rarest).ordinals().length) {
+                rarest = i;
+            }
+        }
+
+        int[] positions = new int[lists.size()];
+        int[] driver = lists.get(rarest).ordinals();
+        candidates:
+        for (int ordinal : driver) {
+            if (segment.isDeleted(ordinal)) {
+                continue;
+            }
+            double lengthNorm = K1 * (1 - B + B * segment.docLength(ordinal) / averageLength);
+            double score = 0;
+            for (int i = 0; i < lists.size(); i++) {
+                IndexSegment.Postings postings = lists.get(i);
+                int found = Arrays.binarySearch(postings.ordinals(), positions[i], postings.ordinals().length, ordinal);
+                if (found < 0) {
+                    positions[i] = -found - 1;
+                    continue candidates;
+                }
+                positions[i] = found;
+                int tf = postings.frequencies()[found];
+                score += weights.get(i) * tf * (K1 + 1) / (tf + lengthNorm);
+            }
+
+            SearchHit hit = new SearchHit(segment.docId(ordinal), score);
+            if (top.size() < limit) {
+                top.add(hit);
+            } else if (top.comparator().compare(hit, top.peek()) > 0) {
+                top.poll();
+                top.add(hit);
+            }
+        }
+    }
+
+    private static List<IndexSegment> tombstone(List<IndexSegment> view, long docId) {
+        List<IndexSegment> next = new ArrayList<>(view.size() + 1);
+        for (IndexSegment segment : view) {
+            int ordinal = segment.liveOrdinalOf(docId);
+            next.add(ordinal >= 0 ? segment.withDeleted(ordinal) : segment);
+        }
+        return next;
+    }
+
+    private static int[] newlyDeleted(IndexSegment before, IndexSegment after) {
+        if (after.deletedCount() == before.deletedCount()) {
+            return new int[0];
+        }
+        return Arrays.stream(after.deletedOrdinals())
+                .filter(ordinal -> !before.isDeleted(ordinal))
+                .toArray();
+    }
+
+    private static double deletedRatio(IndexSegment segment) {
+        return segment.size() == 0 ? 0 : (double) segment.deletedCount() / segment.size();
+    }
+
+    /**
+     * Supplies documents in ascending ID order for a full rebuild.
+     */
+    @FunctionalInterface
+    public interface SegmentSource {
+
+        void forEach(DocumentConsumer consumer);
+    }
+
+    @FunctionalInterface
+    public interface DocumentConsumer {
+
+        void accept(long docId, Map<String, Integer> frequencies);
+    }
+}
@@ -0,0 +1,137 @@
+package com.yasar.listigo.demo.search;
+
+import com.yasar.listigo.demo.dto.AutocompleteField;
+import com.yasar.listigo.demo.event.ListingChangedEvent;
+import com.yasar.listigo.demo.repository.ListingRepository;
+import com.yasar.listigo.demo.repository.projection.ValueCount;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Prefix completion for the exact-match brand, model and location filters, ranked by how
+ * many listings use each value. Per-value usage counts are updated in place from
+ * {@link ListingChangedEvent}s; the immutable tries that serve lookups are rebuilt from
+ * those counts in the background, so a keystroke never waits for a rebuild.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class ListingAutocompleteIndex {
+
+    private final ListingRepository listingRepository;
+
+    private final Map<AutocompleteField, FieldIndex> fields = newFieldIndexes();
+    private final Object loadLock = new Object();
+    private List<ListingChangedEvent> pendingChanges;
+
+    @Value("${listing.autocomplete.max-size}")
+    private int maxSize;
+
+    private static final class FieldIndex {
+        private final ConcurrentHashMap<String, Integer> usage = new ConcurrentHashMap<>();
+        private final AtomicBoolean dirty = new AtomicBoolean();
+        private volatile CompletionTrie trie = CompletionTrie.EMPTY;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void load() {
+        synchronized (loadLock) {
+            pendingChanges = new ArrayList<>();
+        }
+
+        long started = System.currentTimeMillis();
+        load(AutocompleteField.BRAND, listingRepository.countByBrand());
+        load(AutocompleteField.MODEL, listingRepository.countByModel());
+        load(AutocompleteField.LOCATION, listingRepository.countByLocation());
+
+        // A change committed while the counts were read may be counted twice; counts only rank
+        // suggestions, so that is preferable to dropping changes that the queries did not see
+        synchronized (loadLock) {
+            pendingChanges.forEach(this::apply);
+            pendingChanges = null;
+        }
+        rebuild();
+        log.info("Listing autocomplete index loaded in {} ms", System.currentTimeMillis() - started);
+    }
+
+    @TransactionalEventListener
+    public void onListingChanged(ListingChangedEvent event) {
+        synchronized (loadLock) {
+            if (pendingChanges != null) {
+                pendingChanges.add(event);
+                return;
+            }
+        }
+        apply(event);
+    }
+
+    @Scheduled(fixedDelayString = "${listing.autocomplete.rebuild-interval-ms}")
+    public void rebuild() {
+        fields.forEach((field, index) -> {
+            if (index.dirty.getAndSet(false)) {
+                index.trie = CompletionTrie.build(new HashMap<>(index.usage), maxSize);
+                log.debug("Rebuilt {} autocomplete trie with {} values", field, index.trie.size());
+            }
+        });
+    }
+
+    /**
+     * Returns the most used values of the field starting with the prefix, ignoring case.
+     *
+     * @param field field to complete
+     * @param prefix typed prefix
+     * @param limit maximum number of completions, capped at the configured maximum
+     * @return completions, most used first
+     */
+    public List<Completion> complete(AutocompleteField field, String prefix, int limit) {
+        return fields.get(field).trie.complete(prefix, Math.min(limit, maxSize));
+    }
+
+    private void load(AutocompleteField field, List<ValueCount> counts) {
+        FieldIndex index = fields.get(field);
+        counts.stream()
+                .filter(count -> !count.getValue().isBlank())
+                .forEach(count -> index.usage.merge(count.getValue(), Math.toIntExact(count.getCount()), Integer::sum));
+        index.dirty.set(true);
+    }
+
+    private static Map<AutocompleteField, FieldIndex> newFieldIndexes() {
+        Map<AutocompleteField, FieldIndex> indexes = new EnumMap<>(AutocompleteField.class);
+        for (AutocompleteField field : AutocompleteField.values()) {
+            indexes.put(field, new FieldIndex());
+        }
+        return indexes;
+    }
+
+    private void apply(ListingChangedEvent event) {
+        fields.forEach((field, index) -> {
+            String previous = event.getPrevious() == null ? null : field.valueOf(event.getPrevious());
+            String current = event.isDeleted() ? null : field.valueOf(event.getCurrent());
+            if (Objects.equals(previous, current)) {
+                return;
+            }
+            if (previous != null && !previous.isBlank()) {
+                index.usage.computeIfPresent(previous, (value, count) -> count > 1 ? count - 1 : null);
+            }
+            if (current != null && !current.isBlank()) {
+                index.usage.merge(current, 1, Integer::sum);
+            }
+            index.dirty.set(true);
+        });
+    }
+}
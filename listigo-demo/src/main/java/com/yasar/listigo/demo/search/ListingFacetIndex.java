@@ -0,0 +1,351 @@
+package com.yasar.listigo.demo.search;
+
+import com.yasar.listigo.demo.dto.FacetCountDTO;
+import com.yasar.listigo.demo.dto.ListingDTO;
+import com.yasar.listigo.demo.dto.ListingFacetsDTO;
+import com.yasar.listigo.demo.dto.ListingFilterDTO;
+import com.yasar.listigo.demo.entity.Listing;
+import com.yasar.listigo.demo.event.ListingChangedEvent;
+import com.yasar.listigo.demo.repository.ListingRepository;
+import jakarta.persistence.EntityManager;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.roaringbitmap.FastAggregation;
+import org.roaringbitmap.RoaringBitmap;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Objects;
+import java.util.TreeMap;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Function;
+import java.util.stream.Stream;
+
+/**
+ * In-memory bitmap index over the filterable listing attributes. Every attribute value
+ * owns one compressed bitmap of listing IDs, so the listings matching a filter are the
+ * intersection of a handful of bitmaps and each facet count is the cardinality of that
+ * intersection with one more bitmap. Loaded once the application is ready and kept
+ * current from {@link ListingChangedEvent}s, like {@link ListingSearchIndex}.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class ListingFacetIndex {
+
+    private static final RoaringBitmap EMPTY = new RoaringBitmap();
+
+    private final ListingRepository listingRepository;
+    private final PlatformTransactionManager transactionManager;
+    private final EntityManager entityManager;
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private final RoaringBitmap all = new RoaringBitmap();
+    private final Map<String, RoaringBitmap> byCategory = new HashMap<>();
+    private final Map<String, RoaringBitmap> byBrand = new HashMap<>();
+    private final Map<String, RoaringBitmap> byModel = new HashMap<>();
+    private final Map<String, RoaringBitmap> byLocation = new HashMap<>();
+    private final NavigableMap<Integer, RoaringBitmap> byYear = new TreeMap<>();
+    private final NavigableMap<Double, RoaringBitmap> byPrice = new TreeMap<>();
+    private final NavigableMap<Integer, RoaringBitmap> byYearRange = new TreeMap<>();
+    private final NavigableMap<Integer, RoaringBitmap> byPriceRange = new TreeMap<>();
+
+    private final Object loadLock = new Object();
+    private List<ListingChangedEvent> pendingChanges;
+    private volatile boolean ready;
+
+    @Value("${listing.export.clear-interval}")
+    private int clearInterval;
+
+    @Value("${listing.facets.year-bucket-size}")
+    private int yearBucketSize;
+
+    /**
+     * Lower bounds of the price ranges, ascending. The last range is open-ended.
+     */
+    @Value("${listing.facets.price-buckets}")
+    private double[] priceBuckets;
+
+    private record Attributes(String categoryId, String brand, String model, String location,
+                              Integer year, Double price) {
+
+        static Attributes of(Listing listing) {
+            return new Attributes(String.valueOf(listing.getCategory().getCategoryId()), listing.getBrand(),
+                    listing.getModel(), listing.getLocation(), listing.getYear(), listing.getPrice());
+        }
+
+        static Attributes of(ListingDTO listing) {
+            return new Attributes(String.valueOf(listing.getCategoryId()), listing.getBrand(),
+                    listing.getModel(), listing.getLocation(), listing.getYear(), listing.getPrice());
+        }
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void load() {
+        synchronized (loadLock) {
+            pendingChanges = new ArrayList<>();
+        }
+
+        long started = System.currentTimeMillis();
+        TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+        transaction.setReadOnly(true);
+        transaction.executeWithoutResult(status -> {
+            try (Stream<Listing> listings = listingRepository.streamAll()) {
+                Iterator<Listing> iterator = listings.iterator();
+                int count = 0;
+                while (iterator.hasNext()) {
+                    Listing listing = iterator.next();
+                    write(() -> add(toDocId(listing.getListingId()), Attributes.of(listing)));
+                    if (++count % clearInterval == 0) {
+                        entityManager.clear();
+                    }
+                }
+            }
+        });
+
+        synchronized (loadLock) {
+            pendingChanges.forEach(this::apply);
+            pendingChanges = null;
+            write(this::optimize);
+            ready = true;
+        }
+        log.info("Listing facet index loaded with {} listings in {} ms",
+                all.getCardinality(), System.currentTimeMillis() - started);
+    }
+
+    @TransactionalEventListener
+    public void onListingChanged(ListingChangedEvent event) {
+        synchronized (loadLock) {
+            if (pendingChanges != null) {
+                pendingChanges.add(event);
+                return;
+            }
+        }
+        apply(event);
+    }
+
+    public boolean isReady() {
+        return ready;
+    }
+
+    /**
+     * Counts the listings matching the filter, broken down by every facet.
+     *
+     * @param filter      structured criteria; its search text is ignored
+     * @param textMatches listings matching the search text, or null when there is none
+     * @return total and per-value counts; values with no matching listing are left out
+     */
+    public ListingFacetsDTO count(ListingFilterDTO filter, RoaringBitmap textMatches) {
+        lock.readLock().lock();
+        try {
+            RoaringBitmap matching = matching(filter, textMatches);
+
+            ListingFacetsDTO facets = new ListingFacetsDTO();
+            facets.setTotal(matching.getLongCardinality());
+            facets.setCategories(countByFrequency(byCategory, matching));
+            facets.setBrands(countByFrequency(byBrand, matching));
+            facets.setModels(countByFrequency(byModel, matching));
+            facets.setLocations(countByFrequency(byLocation, matching));
+            facets.setYearRanges(countInOrder(byYearRange, matching, this::yearRangeLabel));
+            facets.setPriceRanges(countInOrder(byPriceRange, matching, this::priceRangeLabel));
+            return facets;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private RoaringBitmap matching(ListingFilterDTO filter, RoaringBitmap textMatches) {
+        List<RoaringBitmap> required = new ArrayList<>();
+        required.add(all);
+        if (filter.getCategoryId() != null) {
+            required.add(byCategory.getOrDefault(String.valueOf(filter.getCategoryId()), EMPTY));
+        }
+        addIfPresent(required, byBrand, filter.getBrand());
+        addIfPresent(required, byModel, filter.getModel());
+        addIfPresent(required, byLocation, filter.getLocation());
+        if (filter.getMinYear() != null || filter.getMaxYear() != null) {
+            required.add(union(range(byYear, filter.getMinYear(), filter.getMaxYear())));
+        }
+        if (filter.getMinPrice() != null || filter.getMaxPrice() != null) {
+            required.add(union(range(byPrice, filter.getMinPrice(), filter.getMaxPrice())));
+        }
+        if (textMatches != null) {
+            required.add(textMatches);
+        }
+        // Smallest first keeps every intermediate result of the intersection small
+        required.sort(Comparator.comparingInt(RoaringBitmap::getCardinality));
+        return FastAggregation.and(required.iterator());
+    }
+
+    private static void addIfPresent(List<RoaringBitmap> required, Map<String, RoaringBitmap> facet, String value) {
+        if (value != null && !value.isBlank()) {
+            required.add(facet.getOrDefault(value, EMPTY));
+        }
+    }
+
+    private static <K extends Comparable<K>> NavigableMap<K, RoaringBitmap> range(NavigableMap<K, RoaringBitmap> facet,
+                                                                                K min, K max) {
+        if (min != null && max != null) {
+            return min.compareTo(max) > 0 ? new TreeMap<>() : facet.subMap(min, true, max, true);
+        }
+        return min != null ? facet.tailMap(min, true) : facet.headMap(max, true);
+    }
+
+    private static RoaringBitmap union(NavigableMap<?, RoaringBitmap> bitmaps) {
+        return FastAggregation.or(bitmaps.values().iterator());
+    }
+
+    private static List<FacetCountDTO> countByFrequency(Map<String, RoaringBitmap> facet, RoaringBitmap matching) {
+        List<FacetCountDTO> counts = new ArrayList<>();
+        facet.forEach((value, bitmap) -> {
+            long count = RoaringBitmap.andCardinality(matching, bitmap);
+            if (count > 0) {
+                counts.add(new FacetCountDTO(value, count));
+            }
+        });
+        counts.sort(Comparator.comparingLong(FacetCountDTO::getCount).reversed()
+                .thenComparing(FacetCountDTO::getValue));
+        return counts;
+    }
+
+    private static List<FacetCountDTO> countInOrder(NavigableMap<Integer, RoaringBitmap> facet, RoaringBitmap matching,
+                                                    Function<Integer, String> label) {
+        List<FacetCountDTO> counts = new ArrayList<>();
+        facet.forEach((bucket, bitmap) -> {
+            long count = RoaringBitmap.andCardinality(matching, bitmap);
+            if (count > 0) {
+                counts.add(new FacetCountDTO(label.apply(bucket), count));
+            }
+        });
+        return counts;
+    }
+
+    private void apply(ListingChangedEvent event) {
+        int docId = toDocId(event.getListingId());
+        Attributes previous = event.getPrevious() == null ? null : Attributes.of(event.getPrevious());
+        Attributes current = event.isDeleted() ? null : Attributes.of(event.getCurrent());
+        if (Objects.equals(previous, current)) {
+            return;
+        }
+
+        write(() -> {
+            if (previous != null) {
+                remove(docId, previous);
+            }
+            if (current != null) {
+                add(docId, current);
+            } else {
+                all.remove(docId);
+            }
+        });
+    }
+
+    private void write(Runnable change) {
+        lock.writeLock().lock();
+        try {
+            change.run();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private void add(int docId, Attributes attributes) {
+        all.add(docId);
+        addTo(byCategory, attributes.categoryId(), docId);
+        addTo(byBrand, attributes.brand(), docId);
+        addTo(byModel, attributes.model(), docId);
+        addTo(byLocation, attributes.location(), docId);
+        if (attributes.year() != null) {
+            addTo(byYear, attributes.year(), docId);
+            addTo(byYearRange, yearBucketOf(attributes.year()), docId);
+        }
+        if (attributes.price() != null) {
+            addTo(byPrice, attributes.price(), docId);
+            addTo(byPriceRange, priceBucketOf(attributes.price()), docId);
+        }
+    }
+
+    private void remove(int docId, Attributes attributes) {
+        removeFrom(byCategory, attributes.categoryId(), docId);
+        removeFrom(byBrand, attributes.brand(), docId);
+        removeFrom(byModel, attributes.model(), docId);
+        removeFrom(byLocation, attributes.location(), docId);
+        if (attributes.year() != null) {
+            removeFrom(byYear, attributes.year(), docId);
+            removeFrom(byYearRange, yearBucketOf(attributes.year()), docId);
+        }
+        if (attributes.price() != null) {
+            removeFrom(byPrice, attributes.price(), docId);
+            removeFrom(byPriceRange, priceBucketOf(attributes.price()), docId);
+        }
+    }
+
+    private static <K> void addTo(Map<K, RoaringBitmap> facet, K value, int docId) {
+        if (value != null) {
+            facet.computeIfAbsent(value, key -> new RoaringBitmap()).add(docId);
+        }
+    }
+
+    private static <K> void removeFrom(Map<K, RoaringBitmap> facet, K value, int docId) {
+        if (value == null) {
+            return;
+        }
+        RoaringBitmap bitmap = facet.get(value);
+        if (bitmap != null) {
+            bitmap.remove(docId);
+            if (bitmap.isEmpty()) {
+                facet.remove(value);
+            }
+        }
+    }
+
+    private void optimize() {
+        all.runOptimize();
+        Stream.of(byCategory, byBrand, byModel, byLocation, byYear, byPrice, byYearRange, byPriceRange)
+                .flatMap(facet -> facet.values().stream())
+                .forEach(RoaringBitmap::runOptimize);
+    }
+
+    private int yearBucketOf(int year) {
+        return year - Math.floorMod(year, yearBucketSize);
+    }
+
+    private String yearRangeLabel(int bucketStart) {
+        return bucketStart + "-" + (bucketStart + yearBucketSize - 1);
+    }
+
+    private int priceBucketOf(double price) {
+        int bucket = 0;
+        while (bucket + 1 < priceBuckets.length && price >= priceBuckets[bucket + 1]) {
+            bucket++;
+        }
+        return bucket;
+    }
+
+    private String priceRangeLabel(int bucket) {
+        String lower = BigDecimal.valueOf(priceBuckets[bucket]).stripTrailingZeros().toPlainString();
+        if (bucket + 1 == priceBuckets.length) {
+            return lower + "+";
+        }
+        return lower + "-" + BigDecimal.valueOf(priceBuckets[bucket + 1]).stripTrailingZeros().toPlainString();
+    }
+
+    private static int toDocId(Long listingId) {
+        // Bitmaps are keyed by 32-bit ints; listing IDs come from a sequence and stay well below that
+        return Math.toIntExact(listingId);
+    }
+}
@@ -0,0 +1,147 @@
+package com.yasar.listigo.demo.search;
+
+import com.yasar.listigo.demo.dto.ListingDTO;
+import com.yasar.listigo.demo.entity.Listing;
+import com.yasar.listigo.demo.event.ListingChangedEvent;
+import com.yasar.listigo.demo.repository.ListingRepository;
+import jakarta.persistence.EntityManager;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Stream;
+
+/**
+ * In-memory full-text index over listing title, description, brand, model and location.
+ * Built from the database once the application is ready and kept current from
+ * {@link ListingChangedEvent}s after each commit. Changes that arrive while the initial
+ * load is running are queued and replayed on top of the loaded snapshot.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class ListingSearchIndex {
+
+    private static final int TITLE_BOOST = 2;
+
+    private final ListingRepository listingRepository;
+    private final PlatformTransactionManager transactionManager;
+    private final EntityManager entityManager;
+
+    private final InvertedIndex index = new InvertedIndex();
+    private final Object loadLock = new Object();
+    private List<ListingChangedEvent> pendingChanges;
+    private volatile boolean ready;
+
+    @Value("${listing.export.clear-interval}")
+    private int clearInterval;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void load() {
+        synchronized (loadLock) {
+            pendingChanges = new ArrayList<>();
+        }
+
+        long started = System.currentTimeMillis();
+        TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+        transaction.setReadOnly(true);
+        transaction.executeWithoutResult(status -> index.reset(consumer -> {
+            try (Stream<Listing> listings = listingRepository.streamAll()) {
+                Iterator<Listing> iterator = listings.iterator();
+                int count = 0;
+                while (iterator.hasNext()) {
+                    Listing listing = iterator.next();
+                    consumer.accept(listing.getListingId(), termFrequencies(listing.getTitle(),
+                            listing.getDescription(), listing.getBrand(), listing.getModel(), listing.getLocation()));
+                    if (++count % clearInterval == 0) {
+                        entityManager.clear();
+                    }
+                }
+            }
+        }));
+
+        synchronized (loadLock) {
+            pendingChanges.forEach(this::apply);
+            pendingChanges = null;
+            ready = true;
+        }
+        log.info("Listing search index loaded with {} listings in {} ms",
+                index.size(), System.currentTimeMillis() - started);
+    }
+
+    @TransactionalEventListener
+    public void onListingChanged(ListingChangedEvent event) {
+        synchronized (loadLock) {
+            if (pendingChanges != null) {
+                pendingChanges.add(event);
+                return;
+            }
+        }
+        apply(event);
+    }
+
+    @Scheduled(fixedDelayString = "${listing.search-index.merge-interval-ms}")
+    public void mergeSegments() {
+        int before = index.segmentCount();
+        if (index.merge()) {
+            log.debug("Merged listing search index from {} to {} segments", before, index.segmentCount());
+        }
+    }
+
+    public boolean isReady() {
+        return ready;
+    }
+
+    /**
+     * Returns listings containing every term of the query, best BM25 score first.
+     *
+     * @param query free text query
+     * @param limit maximum number of hits
+     * @return hits whose document ID is the listing ID
+     */
+    public List<SearchHit> search(String query, int limit) {
+        return index.search(query, limit);
+    }
+
+    private void apply(ListingChangedEvent event) {
+        ListingDTO current = event.getCurrent();
+        if (current == null) {
+            index.delete(event.getListingId());
+        } else if (event.getPrevious() == null || !sameText(event.getPrevious(), current)) {
+            index.upsert(event.getListingId(), termFrequencies(current.getTitle(), current.getDescription(),
+                    current.getBrand(), current.getModel(), current.getLocation()));
+        }
+    }
+
+    private static boolean sameText(ListingDTO previous, ListingDTO current) {
+        return Arrays.equals(indexedText(previous), indexedText(current));
+    }
+
+    private static String[] indexedText(ListingDTO listing) {
+        return new String[]{listing.getTitle(), listing.getDescription(), listing.getBrand(),
+                listing.getModel(), listing.getLocation()};
+    }
+
+    private static Map<String, Integer> termFrequencies(String title, String description, String brand,
+                                                        String model, String location) {
+        Map<String, Integer> frequencies = new HashMap<>();
+        TurkishTokenizer.tokenize(title).forEach(term -> frequencies.merge(term, TITLE_BOOST, Integer::sum));
+        for (String field : new String[]{description, brand, model, location}) {
+            TurkishTokenizer.tokenize(field).forEach(term -> frequencies.merge(term, 1, Integer::sum));
+        }
+        return frequencies;
+    }
+}
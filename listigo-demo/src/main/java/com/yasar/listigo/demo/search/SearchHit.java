@@ -0,0 +1,7 @@
+package com.yasar.listigo.demo.search;
+
+/**
+ * A document matched by the inverted index together with its BM25 score.
+ */
+public record SearchHit(long docId, double score) {
+}
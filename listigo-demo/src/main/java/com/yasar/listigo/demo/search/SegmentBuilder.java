@@ -0,0 +1,156 @@
+package com.yasar.listigo.demo.search;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Accumulates documents in ascending ID order and turns them into an {@link IndexSegment}.
+ * Also merges existing segments, dropping deleted documents on the way.
+ */
+final class SegmentBuilder {
+
+    private final List<Long> docIds = new ArrayList<>();
+    private final IntList docLengths = new IntList();
+    private final Map<String, IntList[]> postings = new HashMap<>();
+    private long lastDocId = Long.MIN_VALUE;
+
+    /**
+     * Adds a document. Documents must be added in strictly ascending ID order.
+     *
+     * @param docId       document ID
+     * @param frequencies term frequencies of the document
+     */
+    void add(long docId, Map<String, Integer> frequencies) {
+        if (docId <= lastDocId) {
+            throw new IllegalStateException("Documents must be added in ascending ID order");
+        }
+        lastDocId = docId;
+        int ordinal = docIds.size();
+        docIds.add(docId);
+
+        int length = 0;
+        for (Map.Entry<String, Integer> entry : frequencies.entrySet()) {
+            IntList[] lists = postings.computeIfAbsent(entry.getKey(), term -> new IntList[]{new IntList(), new IntList()});
+            lists[0].add(ordinal);
+            lists[1].add(entry.getValue());
+            length += entry.getValue();
+        }
+        docLengths.add(length);
+    }
+
+    boolean isEmpty() {
+        return docIds.isEmpty();
+    }
+
+    IndexSegment build() {
+        long[] ids = docIds.stream().mapToLong(Long::longValue).toArray();
+        Map<String, IndexSegment.Postings> built = new HashMap<>(postings.size() * 4 / 3 + 1);
+        postings.forEach((term, lists) ->
+                built.put(term, new IndexSegment.Postings(lists[0].toArray(), lists[1].toArray())));
+        return new IndexSegment(ids, docLengths.toArray(), Map.copyOf(built));
+    }
+
+    /**
+     * Merges segments into one, keeping only live documents. A document ID is live in at
+     * most one segment, so the merged ID array is strictly ascending.
+     */
+    static IndexSegment merge(List<IndexSegment> segments) {
+        int live = segments.stream().mapToInt(IndexSegment::liveCount).sum();
+        long[] ids = new long[live];
+        int[] lengths = new int[live];
+        int[][] remap = new int[segments.size()][];
+
+        int[] cursors = new int[segments.size()];
+        for (int s = 0; s < segments.size(); s++) {
+            remap[s] = new int[segments.get(s).size()];
+            Arrays.fill(remap[s], -1);
+        }
+        for (int next = 0; next < live; next++) {
+            int best = -1;
+            for (int s = 0; s < segments.size(); s++) {
+                IndexSegment segment = segments.get(s);
+                while (cursors[s] < segment.size() && segment.isDeleted(cursors[s])) {
+                    cursors[s]++;
+                }
+                if (cursors[s] < segment.size()
+                        && (best < 0 || segment.docId(cursors[s]) < segments.get(best).docId(cursors[best]))) {
+                    best = s;
+                }
+            }
+            IndexSegment source = segments.get(best);
+            ids[next] = source.docId(cursors[best]);
+            lengths[next] = source.docLength(cursors[best]);
+            remap[best][cursors[best]] = next;
+            cursors[best]++;
+        }
+
+        Map<String, List<long[]>> packedByTerm = new HashMap<>();
+        for (int s = 0; s < segments.size(); s++) {
+            int[] mapping = remap[s];
+            for (Map.Entry<String, IndexSegment.Postings> entry : segments.get(s).allPostings().entrySet()) {
+                IndexSegment.Postings source = entry.getValue();
+                long[] packed = new long[source.ordinals().length];
+                int count = 0;
+                for (int i = 0; i < source.ordinals().length; i++) {
+                    int ordinal = mapping[source.ordinals()[i]];
+                    if (ordinal >= 0) {
+                        packed[count++] = ((long) ordinal << 32) | source.frequencies()[i];
+                    }
+                }
+                if (count > 0) {
+                    packedByTerm.computeIfAbsent(entry.getKey(), term -> new ArrayList<>())
+                            .add(Arrays.copyOf(packed, count));
+                }
+            }
+        }
+
+        Map<String, IndexSegment.Postings> merged = new HashMap<>(packedByTerm.size() * 4 / 3 + 1);
+        packedByTerm.forEach((term, parts) -> {
+            long[] all = parts.size() == 1 ? parts.get(0) : concat(parts);
+            if (parts.size() > 1) {
+                Arrays.sort(all);
+            }
+            int[] ordinals = new int[all.length];
+            int[] frequencies = new int[all.length];
+            for (int i = 0; i < all.length; i++) {
+                ordinals[i] = (int) (all[i] >>> 32);
+                frequencies[i] = (int) all[i];
+            }
+            merged.put(term, new IndexSegment.Postings(ordinals, frequencies));
+        });
+        return new IndexSegment(ids, lengths, Map.copyOf(merged));
+    }
+
+    private static long[] concat(List<long[]> parts) {
+        long[] all = new long[parts.stream().mapToInt(part -> part.length).sum()];
+        int offset = 0;
+        for (long[] part : parts) {
+            System.arraycopy(part, 0, all, offset, part.length);
+            offset += part.length;
+        }
+        return all;
+    }
+
+    /**
+     * Growable list of primitive ints.
+     */
+    private static final class IntList {
+
+        private int[] values = new int[4];
+        private int size;
+
+        void add(int value) {
+            if (size == values.length) {
+                values = Arrays.copyOf(values, size * 2);
+            }
+            values[size++] = value;
+        }
+
+        int[] toArray() {
+            return Arrays.copyOf(values, size);
+        }
+    }
+}
@@ -0,0 +1,63 @@
+package com.yasar.listigo.demo.search;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Splits text into lower-case terms using Turkish casing rules. "I" lower-cases to dotless
+ * "ı" and "İ" to "i" as in Turkish, and both "ı" and "i" are then folded to "i" so that
+ * "ISTANBUL", "İstanbul" and "istanbul" all produce the same term.
+ */
+public final class TurkishTokenizer {
+
+    private static final Locale TURKISH = Locale.forLanguageTag("tr-TR");
+
+    private TurkishTokenizer() {
+    }
+
+    /**
+     * Case-folds a whole string without splitting it into terms.
+     *
+     * @param text text to fold, may be null
+     * @return folded text, or an empty string for null
+     */
+    public static String fold(String text) {
+        if (text == null) {
+            return "";
+        }
+        String lower = text.toLowerCase(TURKISH);
+        StringBuilder folded = new StringBuilder(lower.length());
+        for (int i = 0; i < lower.length(); i++) {
+            char c = lower.charAt(i);
+            if (c == 'ı') {
+                folded.append('i');
+            } else if (c != '\u0307') { // combining dot above left over from non-Turkish input
+                folded.append(c);
+            }
+        }
+        return folded.toString();
+    }
+
+    /**
+     * Splits text into folded terms on every character that is not a letter or digit.
+     *
+     * @param text text to tokenize, may be null
+     * @return terms in order of appearance, including duplicates
+     */
+    public static List<String> tokenize(String text) {
+        List<String> tokens = new ArrayList<>();
+        String folded = fold(text);
+        int start = -1;
+        for (int i = 0; i <= folded.length(); i++) {
+            boolean wordChar = i < folded.length() && Character.isLetterOrDigit(folded.charAt(i));
+            if (wordChar && start < 0) {
+                start = i;
+            } else if (!wordChar && start >= 0) {
+                tokens.add(folded.substring(start, i));
+                start = -1;
+            }
+        }
+        return tokens;
+    }
+}
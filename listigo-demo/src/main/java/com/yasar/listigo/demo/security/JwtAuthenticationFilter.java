@@ -1,6 +1,7 @@
 package com.yasar.listigo.demo.security;
 
 import com.yasar.listigo.demo.exception.AuthenticationFailedException;
+import com.yasar.listigo.demo.exception.JwtTokenInvalidException;
 import com.yasar.listigo.demo.util.JwtUtil;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
@@ -16,7 +17,6 @@ import org.springframework.web.filter.OncePerRequestFilter;
 
 import java.io.IOException;
 import java.util.List;
-import java.util.UUID;
 import java.util.stream.Collectors;
 
 @Slf4j
@@ -24,7 +24,11 @@ import java.util.stream.Collectors;
 @RequiredArgsConstructor
 public class JwtAuthenticationFilter extends OncePerRequestFilter {
 
+    private static final String MESSAGE_STREAM_PATH = "/messages/stream";
+    private static final String ACCESS_TOKEN_PARAMETER = "access_token";
+
     private final JwtUtil jwtUtil;
+    private final TokenDenylist tokenDenylist;
 
     @Override
     protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
@@ -41,27 +45,32 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
         }
 
         String header = request.getHeader("Authorization");
-        if (header == null || !header.startsWith("Bearer ")) {
+        String token;
+        if (header != null && header.startsWith("Bearer ")) {
+            token = header.replace("Bearer ", "");
+        } else if (path.endsWith(MESSAGE_STREAM_PATH) && request.getParameter(ACCESS_TOKEN_PARAMETER) != null) {
+            // EventSource cannot set headers, so the message stream also accepts the token as a parameter
+            token = request.getParameter(ACCESS_TOKEN_PARAMETER);
+        } else {
             log.info("Authorization header missing or does not start with Bearer");
             filterChain.doFilter(request, response);
             return;
         }
 
-        String token = header.replace("Bearer ", "");
         try {
-            if (jwtUtil.validateToken(token)) {
-                UUID userId = jwtUtil.extractUserId(token);
-                List<String> roles = jwtUtil.extractUserRoles(token);
-                List<SimpleGrantedAuthority> authorities = roles != null ?
-                        roles.stream().map(SimpleGrantedAuthority::new).collect(Collectors.toList()) :
-                        List.of();
-                log.info("Token valid. UserId: {}, Authorities: {}", userId, authorities);
-                UsernamePasswordAuthenticationToken authentication =
-                        new UsernamePasswordAuthenticationToken(userId, null, authorities);
-                SecurityContextHolder.getContext().setAuthentication(authentication);
-            } else {
-                log.warn("Token invalid");
+            VerifiedToken verified = jwtUtil.verify(token);
+            if (tokenDenylist.isRevoked(verified)) {
+                throw new JwtTokenInvalidException("Token has been revoked");
             }
+            List<SimpleGrantedAuthority> authorities = verified.roles().stream()
+                    .map(SimpleGrantedAuthority::new)
+                    .collect(Collectors.toList());
+            log.debug("Token valid. UserId: {}, Authorities: {}", verified.userId(), authorities);
+            UsernamePasswordAuthenticationToken authentication =
+                    new UsernamePasswordAuthenticationToken(verified.userId(), null, authorities);
+            // Kept so logout can revoke the token that authenticated the request
+            authentication.setDetails(verified);
+            SecurityContextHolder.getContext().setAuthentication(authentication);
         } catch (Exception e) {
             log.error("Authentication failed: ", e);
             throw new AuthenticationFailedException("Authentication failed: " + e.getMessage());
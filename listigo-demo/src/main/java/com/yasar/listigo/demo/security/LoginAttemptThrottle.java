@@ -0,0 +1,77 @@
+package com.yasar.listigo.demo.security;
+
+import com.yasar.listigo.demo.exception.LoginThrottledException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Clock;
+import java.util.Locale;
+
+/**
+ * Limits failed logins per email and per client address over a sliding window. Checked
+ * before the user lookup and password hash, so attempts over the limit cost neither.
+ * Counts are exact per email and per address, so no user is locked out by failures against
+ * another key. Memory is bounded by tracking at most {@code max-keys} of each; if more are
+ * active within one window, evicted keys lose their counts, which can let extra attempts
+ * through but never causes a false lockout, see {@link SlidingWindowCounter}.
+ */
+@Slf4j
+@Component
+public class LoginAttemptThrottle {
+
+    private final Clock clock;
+    private final SlidingWindowCounter failuresByEmail;
+    private final SlidingWindowCounter failuresByAddress;
+    private final long bucketSeconds;
+    private final Counter throttled;
+
+    @Value("${security.login-throttle.max-failures-per-email}")
+    private int maxFailuresPerEmail;
+
+    @Value("${security.login-throttle.max-failures-per-address}")
+    private int maxFailuresPerAddress;
+
+    public LoginAttemptThrottle(Clock clock, MeterRegistry meterRegistry,
+                                @Value("${security.login-throttle.max-keys}") long maxKeys,
+                                @Value("${security.login-throttle.buckets}") int buckets,
+                                @Value("${security.login-throttle.bucket-seconds}") long bucketSeconds) {
+        this.clock = clock;
+        this.bucketSeconds = bucketSeconds;
+        this.failuresByEmail = new SlidingWindowCounter(maxKeys, buckets, bucketSeconds * 1000);
+        this.failuresByAddress = new SlidingWindowCounter(maxKeys, buckets, bucketSeconds * 1000);
+        this.throttled = Counter.builder("login.throttled")
+                .description("Login attempts rejected for too many recent failures")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Rejects the attempt if the email or the client address has failed too often recently.
+     *
+     * @throws LoginThrottledException if either limit is reached
+     */
+    public void checkAllowed(String email, String clientAddress) {
+        long now = clock.millis();
+        if (failuresByEmail.count(normalize(email), now) >= maxFailuresPerEmail
+                || failuresByAddress.count(clientAddress, now) >= maxFailuresPerAddress) {
+            throttled.increment();
+            log.warn("Throttled login attempt for email: {} from {}", email, clientAddress);
+            throw new LoginThrottledException("Too many failed login attempts, please retry later", bucketSeconds);
+        }
+    }
+
+    /**
+     * Counts a failed attempt against both the email and the client address.
+     */
+    public void recordFailure(String email, String clientAddress) {
+        long now = clock.millis();
+        failuresByEmail.increment(normalize(email), now);
+        failuresByAddress.increment(clientAddress, now);
+    }
+
+    private static String normalize(String email) {
+        return email.trim().toLowerCase(Locale.ROOT);
+    }
+}
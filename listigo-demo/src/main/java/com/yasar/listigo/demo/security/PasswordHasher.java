@@ -0,0 +1,123 @@
+package com.yasar.listigo.demo.security;
+
+import com.yasar.listigo.demo.exception.PasswordHashingRejectedException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * Runs the password encoder on a dedicated pool with one thread per core, so a burst of
+ * logins cannot take every request thread's CPU. Callers still wait for their result, but
+ * only as many as the pool and its bounded queue hold; beyond that they are turned away
+ * at once with {@link PasswordHashingRejectedException} instead of queueing behind hashes
+ * that would finish after the client gave up.
+ */
+@Slf4j
+@Component
+public class PasswordHasher {
+
+    private final PasswordEncoder passwordEncoder;
+    private final ThreadPoolExecutor executor;
+    private final Timer encodeTimer;
+    private final Timer matchesTimer;
+    private final Counter rejections;
+
+    @Value("${security.password-hashing.retry-after-seconds}")
+    private long retryAfterSeconds;
+
+    public PasswordHasher(PasswordEncoder passwordEncoder, MeterRegistry meterRegistry,
+                          @Value("${security.password-hashing.queue-capacity}") int queueCapacity) {
+        this.passwordEncoder = passwordEncoder;
+        int threads = Runtime.getRuntime().availableProcessors();
+        this.executor = new ThreadPoolExecutor(threads, threads, 0, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity),
+                Thread.ofPlatform().name("password-hasher-", 0).daemon().factory(),
+                new ThreadPoolExecutor.AbortPolicy());
+
+        Gauge.builder("password.hashing.queue.depth", executor, pool -> pool.getQueue().size())
+                .description("Password hashing tasks waiting for a thread")
+                .register(meterRegistry);
+        this.encodeTimer = Timer.builder("password.hashing.duration")
+                .description("Time spent hashing or verifying a password, excluding queueing")
+                .tag("operation", "encode")
+                .register(meterRegistry);
+        this.matchesTimer = Timer.builder("password.hashing.duration")
+                .description("Time spent hashing or verifying a password, excluding queueing")
+                .tag("operation", "matches")
+                .register(meterRegistry);
+        this.rejections = Counter.builder("password.hashing.rejected")
+                .description("Password hashing requests turned away because the queue was full")
+                .register(meterRegistry);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+
+    /**
+     * Hashes a raw password.
+     *
+     * @throws PasswordHashingRejectedException if too many hashes are already waiting
+     */
+    public String encode(String rawPassword) {
+        return run(encodeTimer, () -> passwordEncoder.encode(rawPassword));
+    }
+
+    /**
+     * Checks a raw password against a stored hash.
+     *
+     * @throws PasswordHashingRejectedException if too many hashes are already waiting
+     */
+    public boolean matches(String rawPassword, String encodedPassword) {
+        return run(matchesTimer, () -> passwordEncoder.matches(rawPassword, encodedPassword));
+    }
+
+    /**
+     * Returns whether the stored hash was made with weaker settings than the encoder now
+     * uses, so it should be replaced the next time the raw password is known. Cheap, as it
+     * only reads the hash's header.
+     */
+    public boolean needsRehash(String encodedPassword) {
+        return passwordEncoder.upgradeEncoding(encodedPassword);
+    }
+
+    private <T> T run(Timer timer, Supplier<T> hash) {
+        Future<T> result;
+        try {
+            result = executor.submit(() -> timer.record(hash));
+        } catch (RejectedExecutionException ex) {
+            rejections.increment();
+            log.warn("Password hashing queue is full, rejecting request");
+            throw new PasswordHashingRejectedException("Too many sign-in requests, please retry shortly",
+                    retryAfterSeconds);
+        }
+
+        try {
+            return result.get();
+        } catch (InterruptedException ex) {
+            result.cancel(true);
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for password hashing", ex);
+        } catch (ExecutionException ex) {
+            if (ex.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw new IllegalStateException("Password hashing failed", ex.getCause());
+        }
+    }
+}
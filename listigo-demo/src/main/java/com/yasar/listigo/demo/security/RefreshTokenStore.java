@@ -0,0 +1,238 @@
+package com.yasar.listigo.demo.security;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import com.yasar.listigo.demo.entity.RefreshToken;
+import com.yasar.listigo.demo.exception.JwtTokenExpiredException;
+import com.yasar.listigo.demo.exception.JwtTokenInvalidException;
+import com.yasar.listigo.demo.repository.RefreshTokenRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.security.SecureRandom;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Base64;
+import java.util.HexFormat;
+import java.util.UUID;
+
+/**
+ * Issues and rotates opaque refresh tokens kept in the refresh_tokens table. Each login
+ * starts a token family, so a user can stay signed in on several devices; each refresh
+ * marks the presented token used and issues its successor in the same family. Presenting a
+ * used token means it was copied, so the whole family is revoked.
+ * <p>
+ * Stored tokens are cached by hash until they expire. The cache is written after each
+ * commit, while rotation itself is decided by a conditional update in the database, so a
+ * stale entry on another instance cannot let a token be used twice.
+ */
+@Slf4j
+@Component
+public class RefreshTokenStore {
+
+    private static final int TOKEN_BYTES = 32;
+
+    private final RefreshTokenRepository refreshTokenRepository;
+    private final TransactionTemplate transaction;
+    private final Clock clock;
+    private final SecureRandom random = new SecureRandom();
+    private final Cache<String, StoredToken> tokens;
+
+    @Value("${jwt.refreshExpiration}")
+    private long refreshExpiration;
+
+    @Value("${refresh-token.purge.batch-size}")
+    private int purgeBatchSize;
+
+    /**
+     * Result of a successful rotation.
+     *
+     * @param userId owner of the token
+     * @param token  the successor to hand to the client
+     */
+    public record Rotation(UUID userId, String token) {
+    }
+
+    private record StoredToken(UUID userId, UUID familyId, Instant expiresAt, Instant usedAt) {
+
+        static StoredToken of(RefreshToken token) {
+            return new StoredToken(token.getUserId(), token.getFamilyId(), token.getExpiresAt(), token.getUsedAt());
+        }
+
+        StoredToken withUsedAt(Instant at) {
+            return new StoredToken(userId, familyId, expiresAt, at);
+        }
+    }
+
+    public RefreshTokenStore(RefreshTokenRepository refreshTokenRepository, PlatformTransactionManager transactionManager,
+                             Clock clock, MeterRegistry meterRegistry,
+                             @Value("${refresh-token.cache.max-size}") long cacheMaxSize) {
+        this.refreshTokenRepository = refreshTokenRepository;
+        this.transaction = new TransactionTemplate(transactionManager);
+        this.clock = clock;
+        this.tokens = Caffeine.newBuilder()
+                .maximumSize(cacheMaxSize)
+                .expireAfter(new Expiry<String, StoredToken>() {
+                    @Override
+                    public long expireAfterCreate(String key, StoredToken token, long currentTime) {
+                        return Math.max(0, Duration.between(clock.instant(), token.expiresAt()).toNanos());
+                    }
+
+                    @Override
+                    public long expireAfterUpdate(String key, StoredToken token, long currentTime,
+                                                  long currentDuration) {
+                        return currentDuration;
+                    }
+
+                    @Override
+                    public long expireAfterRead(String key, StoredToken token, long currentTime,
+                                                long currentDuration) {
+                        return currentDuration;
+                    }
+                })
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, tokens, "refresh.tokens");
+    }
+
+    /**
+     * Issues a token starting a new family, for a new sign-in. Joins the caller's
+     * transaction if there is one.
+     *
+     * @param userId owner of the token
+     * @return the raw token; only its hash is stored
+     */
+    public String issue(UUID userId) {
+        return issue(userId, UUID.randomUUID());
+    }
+
+    /**
+     * Exchanges a token for its successor in the same family.
+     *
+     * @param rawToken token presented by the client
+     * @return the owner and the new token
+     * @throws JwtTokenInvalidException if the token is unknown, or was already used, in which case its family is revoked
+     * @throws JwtTokenExpiredException if the token has expired
+     */
+    public Rotation rotate(String rawToken) {
+        String tokenHash = hash(rawToken);
+        StoredToken stored = tokens.get(tokenHash,
+                hash -> refreshTokenRepository.findById(hash).map(StoredToken::of).orElse(null));
+        Instant now = clock.instant();
+        if (stored == null) {
+            throw new JwtTokenInvalidException("Invalid refresh token");
+        }
+        if (!stored.expiresAt().isAfter(now)) {
+            throw new JwtTokenExpiredException("Refresh token has expired");
+        }
+
+        String successor = stored.usedAt() != null ? null : transaction.execute(status ->
+                refreshTokenRepository.markUsed(tokenHash, now) == 1 ? issue(stored.userId(), stored.familyId()) : null);
+        if (successor == null) {
+            revokeFamily(stored.familyId());
+            log.warn("Reuse of refresh token detected for user ID: {}, revoked token family {}",
+                    stored.userId(), stored.familyId());
+            throw new JwtTokenInvalidException("Refresh token has already been used");
+        }
+
+        tokens.put(tokenHash, stored.withUsedAt(now));
+        return new Rotation(stored.userId(), successor);
+    }
+
+    /**
+     * Revokes the family of the token if it belongs to the user; unknown tokens are ignored.
+     *
+     * @param rawToken token presented by the client
+     * @param userId   user signing out
+     */
+    public void revoke(String rawToken, UUID userId) {
+        refreshTokenRepository.findById(hash(rawToken))
+                .filter(token -> token.getUserId().equals(userId))
+                .ifPresent(token -> revokeFamily(token.getFamilyId()));
+    }
+
+    /**
+     * Revokes every refresh token of the user, signing out all of their devices.
+     */
+    public void revokeAll(UUID userId) {
+        transaction.executeWithoutResult(status -> refreshTokenRepository.deleteByUserId(userId));
+        tokens.asMap().values().removeIf(token -> token.userId().equals(userId));
+    }
+
+    @Scheduled(fixedDelayString = "${refresh-token.purge.interval-ms}")
+    public void purgeExpired() {
+        Instant now = clock.instant();
+        int purged = 0;
+        int deleted;
+        do {
+            deleted = transaction.execute(status -> refreshTokenRepository.deleteExpired(now, purgeBatchSize));
+            purged += deleted;
+        } while (deleted == purgeBatchSize);
+        if (purged > 0) {
+            log.info("Purged {} expired refresh tokens", purged);
+        }
+    }
+
+    private String issue(UUID userId, UUID familyId) {
+        byte[] bytes = new byte[TOKEN_BYTES];
+        random.nextBytes(bytes);
+        String rawToken = Base64.getUrlEncoder().withoutPadding().encodeToString(bytes);
+
+        Instant now = clock.instant();
+        RefreshToken token = new RefreshToken();
+        token.setTokenHash(hash(rawToken));
+        token.setUserId(userId);
+        token.setFamilyId(familyId);
+        token.setCreatedAt(now);
+        token.setExpiresAt(now.plusMillis(refreshExpiration));
+        refreshTokenRepository.save(token);
+
+        StoredToken stored = StoredToken.of(token);
+        afterCommit(() -> tokens.put(token.getTokenHash(), stored));
+        return rawToken;
+    }
+
+    private void revokeFamily(UUID familyId) {
+        transaction.executeWithoutResult(status -> refreshTokenRepository.deleteByFamilyId(familyId));
+        tokens.asMap().values().removeIf(token -> token.familyId().equals(familyId));
+    }
+
+    private static void afterCommit(Runnable action) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            action.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                action.run();
+            }
+        });
+    }
+
+    /**
+     * Tokens are 256 random bits, so a fast unsalted hash is enough to make a leaked table
+     * useless without slowing down every refresh.
+     */
+    private static String hash(String rawToken) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(rawToken.getBytes(StandardCharsets.UTF_8));
+            return HexFormat.of().formatHex(digest);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    }
+}
@@ -0,0 +1,88 @@
+package com.yasar.listigo.demo.security;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+import java.time.Duration;
+
+/**
+ * Exact per-key event counts over a sliding window, for at most a fixed number of keys.
+ * Each key has its own small ring of counters, one per time bucket, tagged with the bucket's
+ * number so counters older than the window are ignored and then reused without a cleanup pass.
+ * <p>
+ * Keys are never shared, so one key's events cannot be counted against another. When more
+ * keys are active than the cache holds, the least valuable ones are evicted and their counts
+ * are lost: under that pressure a key can be undercounted, never overcounted. Keys idle for
+ * a whole window hold no live counts and expire.
+ */
+final class SlidingWindowCounter {
+
+    private final int buckets;
+    private final long bucketMillis;
+    private final Cache<String, Window> windows;
+
+    /**
+     * @param maxKeys      most keys tracked at once
+     * @param buckets      number of buckets the window is divided into
+     * @param bucketMillis length of one bucket
+     */
+    SlidingWindowCounter(long maxKeys, int buckets, long bucketMillis) {
+        this.buckets = buckets;
+        this.bucketMillis = bucketMillis;
+        this.windows = Caffeine.newBuilder()
+                .maximumSize(maxKeys)
+                .expireAfterAccess(Duration.ofMillis(buckets * bucketMillis))
+                .build();
+    }
+
+    /**
+     * Counts one event for the key at the given time.
+     */
+    void increment(String key, long nowMillis) {
+        int bucketNumber = bucketNumber(nowMillis);
+        int bucket = Math.floorMod(bucketNumber, buckets);
+        Window window = windows.get(key, k -> new Window(buckets));
+        synchronized (window) {
+            if (window.bucketNumbers[bucket] != bucketNumber) {
+                window.bucketNumbers[bucket] = bucketNumber;
+                window.counts[bucket] = 0;
+            }
+            window.counts[bucket]++;
+        }
+    }
+
+    /**
+     * Returns the key's number of events in the window ending at the given time.
+     */
+    int count(String key, long nowMillis) {
+        Window window = windows.getIfPresent(key);
+        if (window == null) {
+            return 0;
+        }
+        int bucketNumber = bucketNumber(nowMillis);
+        int sum = 0;
+        synchronized (window) {
+            for (int bucket = 0; bucket < buckets; bucket++) {
+                if (bucketNumber - window.bucketNumbers[bucket] < buckets) {
+                    sum += window.counts[bucket];
+                }
+            }
+        }
+        return sum;
+    }
+
+    private int bucketNumber(long nowMillis) {
+        return (int) (nowMillis / bucketMillis);
+    }
+
+    private static final class Window {
+
+        private final int[] counts;
+        private final int[] bucketNumbers;
+
+        private Window(int buckets) {
+            counts = new int[buckets];
+            bucketNumbers = new int[buckets];
+        }
+    }
+}
@@ -0,0 +1,249 @@
+package com.yasar.listigo.demo.security;
+
+import com.yasar.listigo.demo.entity.RevokedToken;
+import com.yasar.listigo.demo.entity.UserTokenRevocation;
+import com.yasar.listigo.demo.repository.RevokedTokenRepository;
+import com.yasar.listigo.demo.repository.UserTokenRevocationRepository;
+import com.yasar.listigo.demo.util.BloomFilter;
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Clock;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Access tokens revoked before they expire, either one at a time by jti or all of a user's
+ * tokens issued up to a point in time. Revocations are written to the revoked_tokens and
+ * user_token_revocations tables and held in memory behind a Bloom filter, so checking a
+ * token that is not revoked, the common case, costs a few bit probes and no map lookup.
+ * <p>
+ * The tables are read at startup, before the first request is authenticated, and reread
+ * periodically, which also drops revocations whose tokens have expired and picks up those
+ * made on other instances.
+ */
+@Slf4j
+@Component
+public class TokenDenylist {
+
+    /**
+     * Keeps the filter keys of users apart from those of tokens with the same UUID bits.
+     */
+    private static final long USER_KEY_SALT = 0x9e3779b97f4a7c15L;
+
+    private final RevokedTokenRepository revokedTokenRepository;
+    private final UserTokenRevocationRepository userTokenRevocationRepository;
+    private final TransactionTemplate transaction;
+    private final Clock clock;
+
+    private final Object lock = new Object();
+    private List<Revocation> pendingRevocations;
+    private volatile State state;
+
+    @Value("${jwt.expiration}")
+    private long accessTokenExpiration;
+
+    @Value("${security.token-denylist.false-positive-rate}")
+    private double falsePositiveRate;
+
+    @Value("${security.token-denylist.min-capacity}")
+    private long minCapacity;
+
+    /**
+     * A token revocation if tokenId is set, otherwise a revocation of the user's tokens
+     * issued up to revokedBefore.
+     */
+    private record Revocation(UUID tokenId, UUID userId, Instant revokedBefore) {
+    }
+
+    private static final class State {
+        private final Set<UUID> revokedTokenIds = ConcurrentHashMap.newKeySet();
+        private final Map<UUID, Instant> revokedBeforeByUserId = new ConcurrentHashMap<>();
+        private volatile BloomFilter filter;
+        private long filterCapacity;
+        private long filterInsertions;
+    }
+
+    public TokenDenylist(RevokedTokenRepository revokedTokenRepository,
+                         UserTokenRevocationRepository userTokenRevocationRepository,
+                         PlatformTransactionManager transactionManager, Clock clock) {
+        this.revokedTokenRepository = revokedTokenRepository;
+        this.userTokenRevocationRepository = userTokenRevocationRepository;
+        this.transaction = new TransactionTemplate(transactionManager);
+        this.clock = clock;
+    }
+
+    @PostConstruct
+    @Scheduled(initialDelayString = "${security.token-denylist.reload-interval-ms}",
+            fixedDelayString = "${security.token-denylist.reload-interval-ms}")
+    public void reload() {
+        synchronized (lock) {
+            pendingRevocations = new ArrayList<>();
+        }
+
+        Instant now = clock.instant();
+        State loaded = new State();
+        try {
+            transaction.executeWithoutResult(status -> {
+                revokedTokenRepository.deleteExpired(now);
+                userTokenRevocationRepository.deleteExpired(now);
+            });
+            revokedTokenRepository.findByExpiresAtAfter(now)
+                    .forEach(token -> loaded.revokedTokenIds.add(token.getTokenId()));
+            userTokenRevocationRepository.findByExpiresAtAfter(now)
+                    .forEach(revocation -> loaded.revokedBeforeByUserId.put(revocation.getUserId(),
+                            revocation.getRevokedBefore()));
+        } catch (RuntimeException ex) {
+            synchronized (lock) {
+                pendingRevocations = null;
+            }
+            throw ex;
+        }
+
+        // Revocations committed while the tables were read are applied again; that is
+        // harmless, as applying a revocation twice has the same effect as once
+        synchronized (lock) {
+            rebuildFilter(loaded);
+            pendingRevocations.forEach(revocation -> apply(loaded, revocation));
+            pendingRevocations = null;
+            state = loaded;
+        }
+        log.debug("Token denylist loaded {} revoked tokens and {} revoked users",
+                loaded.revokedTokenIds.size(), loaded.revokedBeforeByUserId.size());
+    }
+
+    /**
+     * Revokes a single access token until it expires. A token issued before tokens carried
+     * a jti cannot be told apart from the user's others, so all of the user's tokens issued
+     * up to it are revoked instead.
+     *
+     * @param token the verified token to revoke
+     */
+    public void revokeToken(VerifiedToken token) {
+        if (token.tokenId() == null) {
+            revokeAllIssuedBefore(token.userId(), token.issuedAt() != null ? token.issuedAt() : clock.instant());
+            return;
+        }
+
+        RevokedToken revoked = new RevokedToken();
+        revoked.setTokenId(token.tokenId());
+        revoked.setUserId(token.userId());
+        revoked.setExpiresAt(token.expiresAt() != null ? token.expiresAt() : clock.instant().plusMillis(accessTokenExpiration));
+        if (!revokedTokenRepository.existsById(token.tokenId())) {
+            revokedTokenRepository.save(revoked);
+        }
+        record(new Revocation(token.tokenId(), token.userId(), null));
+        log.info("Revoked access token {} of user ID: {}", token.tokenId(), token.userId());
+    }
+
+    /**
+     * Revokes every access token of the user issued up to the given time, to the millisecond,
+     * so a token issued right after the call, such as a login following a logout of all
+     * devices, stays valid. Older tokens only record their issue time to the second and are
+     * revoked if issued in or before the second of the given time.
+     *
+     * @param userId  owner of the tokens
+     * @param instant tokens issued at or before this time are revoked
+     */
+    public void revokeAllIssuedBefore(UUID userId, Instant instant) {
+        Instant revokedBefore = instant.truncatedTo(ChronoUnit.MILLIS);
+        transaction.executeWithoutResult(status -> {
+            UserTokenRevocation revocation = userTokenRevocationRepository.findById(userId)
+                    .orElseGet(() -> {
+                        UserTokenRevocation created = new UserTokenRevocation();
+                        created.setUserId(userId);
+                        created.setRevokedBefore(revokedBefore);
+                        return created;
+                    });
+            if (revocation.getRevokedBefore().isBefore(revokedBefore)) {
+                revocation.setRevokedBefore(revokedBefore);
+            }
+            // Tokens last at most the configured lifetime, plus the second older tokens' iat drops
+            revocation.setExpiresAt(revocation.getRevokedBefore().plusMillis(accessTokenExpiration).plusSeconds(1));
+            userTokenRevocationRepository.save(revocation);
+        });
+        record(new Revocation(null, userId, revokedBefore));
+        log.info("Revoked access tokens of user ID: {} issued up to {}", userId, revokedBefore);
+    }
+
+    /**
+     * Returns whether the token has been revoked, individually or with all of its user's tokens.
+     */
+    public boolean isRevoked(VerifiedToken token) {
+        State current = state;
+        BloomFilter filter = current.filter;
+        if (token.tokenId() != null && filter.mightContain(tokenKey(token.tokenId()))
+                && current.revokedTokenIds.contains(token.tokenId())) {
+            return true;
+        }
+        if (filter.mightContain(userKey(token.userId()))) {
+            Instant revokedBefore = current.revokedBeforeByUserId.get(token.userId());
+            return revokedBefore != null && (token.issuedAt() == null || !token.issuedAt().isAfter(revokedBefore));
+        }
+        return false;
+    }
+
+    private void record(Revocation revocation) {
+        synchronized (lock) {
+            if (pendingRevocations != null) {
+                pendingRevocations.add(revocation);
+            }
+            if (state != null) {
+                apply(state, revocation);
+            }
+        }
+    }
+
+    /**
+     * Must be called holding the lock. The filter learns the key before the map, so a reader
+     * never finds a revocation the filter would reject.
+     */
+    private void apply(State target, Revocation revocation) {
+        if (++target.filterInsertions > target.filterCapacity) {
+            rebuildFilter(target);
+        }
+        if (revocation.tokenId() != null) {
+            target.filter.add(tokenKey(revocation.tokenId()));
+            target.revokedTokenIds.add(revocation.tokenId());
+        } else {
+            target.filter.add(userKey(revocation.userId()));
+            target.revokedBeforeByUserId.merge(revocation.userId(), revocation.revokedBefore(),
+                    (existing, added) -> existing.isAfter(added) ? existing : added);
+        }
+    }
+
+    /**
+     * Replaces the filter with one sized for twice the current revocations. Must be called
+     * holding the lock.
+     */
+    private void rebuildFilter(State target) {
+        long entries = target.revokedTokenIds.size() + target.revokedBeforeByUserId.size();
+        long capacity = Math.max(entries * 2, minCapacity);
+        BloomFilter rebuilt = new BloomFilter(capacity, falsePositiveRate);
+        target.revokedTokenIds.forEach(tokenId -> rebuilt.add(tokenKey(tokenId)));
+        target.revokedBeforeByUserId.keySet().forEach(userId -> rebuilt.add(userKey(userId)));
+        target.filter = rebuilt;
+        target.filterCapacity = capacity;
+        target.filterInsertions = entries;
+    }
+
+    private static long tokenKey(UUID tokenId) {
+        return BloomFilter.mix(BloomFilter.mix(tokenId.getMostSignificantBits()) ^ tokenId.getLeastSignificantBits());
+    }
+
+    private static long userKey(UUID userId) {
+        return BloomFilter.mix(BloomFilter.mix(userId.getMostSignificantBits() ^ USER_KEY_SALT)
+                ^ userId.getLeastSignificantBits());
+    }
+}
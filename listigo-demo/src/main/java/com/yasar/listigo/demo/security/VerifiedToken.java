@@ -0,0 +1,18 @@
+package com.yasar.listigo.demo.security;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Claims of a token whose signature and expiry have been checked.
+ *
+ * @param userId    subject of the token
+ * @param roles     granted roles, empty if the token carries none
+ * @param tokenId   the token's jti, or null for tokens issued before it was added
+ * @param issuedAt  when the token was issued, to the millisecond, or to the second for tokens
+ *                  issued before the millisecond claim was added; null if not recorded
+ * @param expiresAt end of the token's validity, or null if it never expires
+ */
+public record VerifiedToken(UUID userId, List<String> roles, UUID tokenId, Instant issuedAt, Instant expiresAt) {
+}
@@ -1,6 +1,7 @@
 package com.yasar.listigo.demo.service;
 
 import com.yasar.listigo.demo.dto.CategoryDTO;
+import com.yasar.listigo.demo.dto.ResourceVersionDTO;
 
 import java.util.List;
 
@@ -44,4 +45,19 @@ public interface CategoryService {
      * @return List of category DTOs
      */
     List<CategoryDTO> getAllCategories();
-}
\ No newline at end of file
+
+    /**
+     * Reads only the version of a category, for answering conditional GETs without building the DTO.
+     *
+     * @param categoryId The ID of the category
+     * @return Entity tag and last modification time of the category
+     */
+    ResourceVersionDTO getCategoryVersion(Long categoryId);
+
+    /**
+     * Reads a version covering every category, for answering conditional GETs of the full list.
+     *
+     * @return Entity tag and last modification time of the category list
+     */
+    ResourceVersionDTO getAllCategoriesVersion();
+}
@@ -0,0 +1,45 @@
+package com.yasar.listigo.demo.service;
+
+import com.yasar.listigo.demo.dto.ListingImportFormat;
+import com.yasar.listigo.demo.dto.ListingImportStatusDTO;
+import com.yasar.listigo.demo.exception.ListingImportNotFoundException;
+import com.yasar.listigo.demo.exception.ListingImportRejectedException;
+import com.yasar.listigo.demo.exception.ListingImportTooLargeException;
+import com.yasar.listigo.demo.exception.UserNotFoundException;
+import java.io.InputStream;
+import java.util.UUID;
+
+/**
+ * Service interface for importing listing feeds from files.
+ */
+public interface ListingImportService {
+
+    /**
+     * Starts importing the listings of an uploaded feed for the authenticated user. The body
+     * is copied to disk as it is read, then processed in the background; poll the returned
+     * job for progress.
+     *
+     * @param userId        ID of the authenticated user
+     * @param body          Request body holding the CSV or NDJSON feed
+     * @param contentLength Declared length of the body, or -1 if unknown
+     * @param contentType   Content type of the body, may be null
+     * @param fileName      Name of the feed for the job status, may be null
+     * @param format        Format of the feed; inferred from the content type, then the file name, when null
+     * @return Status of the started job
+     * @throws UserNotFoundException if user is not found
+     * @throws ListingImportTooLargeException if the body exceeds the maximum import size
+     * @throws ListingImportRejectedException if the maximum number of imports is already running
+     */
+    ListingImportStatusDTO startImport(UUID userId, InputStream body, long contentLength, String contentType,
+                                       String fileName, ListingImportFormat format);
+
+    /**
+     * Retrieves the progress of an import job of the authenticated user.
+     *
+     * @param userId ID of the authenticated user
+     * @param jobId  ID of the import job
+     * @return Status of the job
+     * @throws ListingImportNotFoundException if the job does not exist, belongs to another user or has expired
+     */
+    ListingImportStatusDTO getImportStatus(UUID userId, UUID jobId);
+}
@@ -1,14 +1,27 @@
 package com.yasar.listigo.demo.service;
 
+import com.yasar.listigo.demo.dto.AutocompleteField;
+import com.yasar.listigo.demo.dto.FacetCountDTO;
+import com.yasar.listigo.demo.dto.ListingBatchDTO;
+import com.yasar.listigo.demo.dto.ListingBulkResultDTO;
 import com.yasar.listigo.demo.dto.ListingDTO;
+import com.yasar.listigo.demo.dto.ListingFacetsDTO;
 import com.yasar.listigo.demo.dto.ListingFilterDTO;
+import com.yasar.listigo.demo.dto.ListingPageDTO;
+import com.yasar.listigo.demo.dto.ListingSearchResultDTO;
+import com.yasar.listigo.demo.dto.ListingSort;
+import com.yasar.listigo.demo.dto.ListingSummaryDTO;
+import com.yasar.listigo.demo.dto.ResourceVersionDTO;
 import com.yasar.listigo.demo.exception.ListingNotCreatedException;
 import com.yasar.listigo.demo.exception.ListingNotDeletedException;
 import com.yasar.listigo.demo.exception.ListingNotFoundException;
 import com.yasar.listigo.demo.exception.ListingNotUpdatedException;
 import com.yasar.listigo.demo.exception.PhotoNotFoundException;
 import com.yasar.listigo.demo.exception.PhotoUploadException;
+import com.yasar.listigo.demo.exception.UserNotFoundException;
 
+import java.io.IOException;
+import java.io.OutputStream;
 import java.util.List;
 import java.util.UUID;
 
@@ -28,6 +41,17 @@ public interface ListingService {
      */
     ListingDTO createListing(UUID userId, ListingDTO listingDTO);
 
+    /**
+     * Creates many listings for the authenticated user, committing them in chunks.
+     * Invalid listings and listings of a failed chunk are reported without stopping the others.
+     *
+     * @param userId      ID of the authenticated user
+     * @param listingDTOs Listings to create
+     * @return Result of every listing, in request order
+     * @throws UserNotFoundException if user is not found
+     */
+    ListingBulkResultDTO bulkCreateListings(UUID userId, List<ListingDTO> listingDTOs);
+
     /**
      * Updates an existing listing.
      *
@@ -51,13 +75,16 @@ public interface ListingService {
     void deleteListing(UUID userId, Long listingId);
 
     /**
-     * Retrieves all listings for the authenticated user.
+     * Retrieves a page of listings for the authenticated user.
      *
      * @param userId ID of the authenticated user
-     * @return List of user's listings
+     * @param cursor Opaque cursor from the previous page, or null for the first page
+     * @param size   Requested page size, capped at the configured maximum
+     * @param sort   Sort order of the page
+     * @return Page of user's listings with the cursor of the next page
      * @throws ListingNotFoundException if no listings are found for the user
      */
-    List<ListingDTO> getUserListings(UUID userId);
+    ListingPageDTO<ListingDTO> getUserListings(UUID userId, String cursor, Integer size, ListingSort sort);
 
     /**
      * Retrieves a listing by its ID.
@@ -69,20 +96,128 @@ public interface ListingService {
     ListingDTO getListingById(Long listingId);
 
     /**
-     * Retrieves all listings.
+     * Retrieves many listings by ID in one query.
+     *
+     * @param listingIds IDs of the listings, at most the configured maximum page size
+     * @return Found listings in request order, and the IDs that do not exist
+     */
+    ListingBatchDTO getListingsByIds(List<Long> listingIds);
+
+    /**
+     * Reads only the version of a listing, for answering conditional GETs without building the DTO.
      *
-     * @return List of all listings
+     * @param listingId ID of the listing
+     * @return Entity tag and last modification time of the listing
+     * @throws ListingNotFoundException if the listing is not found
+     */
+    ResourceVersionDTO getListingVersion(Long listingId);
+
+    /**
+     * Returns the version a listing DTO was read at, so the validators sent with a body
+     * always describe that body, even when it was served from the cache.
+     *
+     * @param listing listing as returned by {@link #getListingById(Long)}
+     * @return Entity tag and last modification time of the given state
+     */
+    ResourceVersionDTO getListingVersion(ListingDTO listing);
+
+    /**
+     * Retrieves a page of all listings.
+     *
+     * @param cursor Opaque cursor from the previous page, or null for the first page
+     * @param size   Requested page size, capped at the configured maximum
+     * @param sort   Sort order of the page
+     * @return Page of listings with the cursor of the next page
      * @throws ListingNotFoundException if no listings are found
      */
-    List<ListingDTO> getAllListings();
+    ListingPageDTO<ListingDTO> getAllListings(String cursor, Integer size, ListingSort sort);
 
     /**
-     * Retrieves listings based on filter criteria.
+     * Retrieves a page of listings based on filter criteria.
      *
      * @param filterDTO Filter criteria (category, brand, model, etc.)
-     * @return List of filtered listings
+     * @param cursor    Opaque cursor from the previous page, or null for the first page
+     * @param size      Requested page size, capped at the configured maximum
+     * @param sort      Sort order of the page
+     * @return Page of filtered listings with the cursor of the next page
      */
-    List<ListingDTO> getFilteredListings(ListingFilterDTO filterDTO);
+    ListingPageDTO<ListingDTO> getFilteredListings(ListingFilterDTO filterDTO, String cursor, Integer size,
+                                                   ListingSort sort);
+
+    /**
+     * Retrieves a page of the authenticated user's listings as lightweight summaries.
+     *
+     * @param userId ID of the authenticated user
+     * @param cursor Opaque cursor from the previous page, or null for the first page
+     * @param size   Requested page size, capped at the configured maximum
+     * @param sort   Sort order of the page
+     * @return Page of listing summaries with the cursor of the next page
+     * @throws ListingNotFoundException if no listings are found for the user
+     */
+    ListingPageDTO<ListingSummaryDTO> getUserListingSummaries(UUID userId, String cursor, Integer size,
+                                                              ListingSort sort);
+
+    /**
+     * Retrieves a page of all listings as lightweight summaries.
+     *
+     * @param cursor Opaque cursor from the previous page, or null for the first page
+     * @param size   Requested page size, capped at the configured maximum
+     * @param sort   Sort order of the page
+     * @return Page of listing summaries with the cursor of the next page
+     * @throws ListingNotFoundException if no listings are found
+     */
+    ListingPageDTO<ListingSummaryDTO> getAllListingSummaries(String cursor, Integer size, ListingSort sort);
+
+    /**
+     * Retrieves a page of listings matching the filter criteria as lightweight summaries.
+     *
+     * @param filterDTO Filter criteria (category, brand, model, etc.)
+     * @param cursor    Opaque cursor from the previous page, or null for the first page
+     * @param size      Requested page size, capped at the configured maximum
+     * @param sort      Sort order of the page
+     * @return Page of filtered listing summaries with the cursor of the next page
+     */
+    ListingPageDTO<ListingSummaryDTO> getFilteredListingSummaries(ListingFilterDTO filterDTO, String cursor,
+                                                                  Integer size, ListingSort sort);
+
+    /**
+     * Full-text searches listing titles and descriptions, best matches first.
+     *
+     * @param query Free-form search text; quoted phrases, OR and -exclusions are supported
+     * @param size  Requested number of results, capped at the configured maximum page size
+     * @return Ranked results with HTML-escaped title and description snippets, matches wrapped in mark tags
+     */
+    List<ListingSearchResultDTO> searchListings(String query, Integer size);
+
+    /**
+     * Counts the listings matching the filter per category, brand, model, year range,
+     * price range and location.
+     *
+     * @param filterDTO Filter criteria
+     * @return Total number of matching listings and the per-value counts of every facet
+     */
+    ListingFacetsDTO getListingFacets(ListingFilterDTO filterDTO);
+
+    /**
+     * Suggests values for an exact-match filter field, ignoring case.
+     *
+     * @param field  Field to complete
+     * @param prefix Typed prefix
+     * @param size   Requested number of suggestions, capped at the configured maximum
+     * @return Values starting with the prefix and their listing counts, most used first
+     */
+    List<FacetCountDTO> autocomplete(AutocompleteField field, String prefix, Integer size);
+
+    /**
+     * Searches listings through the in-memory inverted index. Every query term must match
+     * the title, description, brand, model or location; results are ranked with BM25.
+     * Falls back to {@link #searchListings(String, Integer)} while the index is loading.
+     *
+     * @param query Free-form search text
+     * @param size  Requested number of results, capped at the configured maximum page size
+     * @return Ranked results; highlights are not populated
+     */
+    List<ListingSearchResultDTO> instantSearchListings(String query, Integer size);
 
     /**
      * Uploads a photo to a listing.
@@ -116,4 +251,14 @@ public interface ListingService {
      * @throws ListingNotFoundException if listing is not found
      */
     List<String> getListingPhotos(Long listingId);
+
+    /**
+     * Writes every listing to the given stream as newline-delimited JSON, one listing per line.
+     * Rows are read through a database cursor so memory usage does not grow with the catalogue.
+     *
+     * @param outputStream Stream to write to; it is flushed but not closed
+     * @return Number of listings written
+     * @throws IOException if writing to the stream fails
+     */
+    long exportListings(OutputStream outputStream) throws IOException;
 }
\ No newline at end of file
@@ -1,8 +1,10 @@
 package com.yasar.listigo.demo.service;
 
+import com.yasar.listigo.demo.dto.ConversationPageDTO;
 import com.yasar.listigo.demo.dto.MessageDTO;
+import com.yasar.listigo.demo.dto.MessagePageDTO;
+import com.yasar.listigo.demo.dto.UnreadCountDTO;
 
-import java.util.List;
 import java.util.UUID;
 
 public interface MessageService {
@@ -18,13 +20,34 @@ public interface MessageService {
     MessageDTO sendMessage(UUID senderId, Long listingId, MessageDTO messageDTO);
 
     /**
-     * Retrieves all messages for a specific listing that the user is involved in.
+     * Retrieves a page of the messages for a specific listing that the user is involved in,
+     * oldest first, and marks the returned messages sent to the user read.
      *
      * @param userId    The ID of the user
      * @param listingId The ID of the listing
-     * @return List of messages as DTOs
+     * @param cursor    Cursor returned with the previous page, or null for the first page
+     * @param size      Page size, or null for the default
+     * @return Page of messages as DTOs and the cursor of the next page
      */
-    List<MessageDTO> getMessagesByListingId(UUID userId, Long listingId);
+    MessagePageDTO getMessagesByListingId(UUID userId, Long listingId, String cursor, Integer size);
+
+    /**
+     * Retrieves a page of the user's conversations, the one with the latest message first.
+     *
+     * @param userId The ID of the user
+     * @param cursor Cursor returned with the previous page, or null for the first page
+     * @param size   Page size, or null for the default
+     * @return Page of conversations with their last message and unread count, and the cursor of the next page
+     */
+    ConversationPageDTO getInbox(UUID userId, String cursor, Integer size);
+
+    /**
+     * Retrieves the number of unread messages sent to the user, across all conversations.
+     *
+     * @param userId The ID of the user
+     * @return Unread message count
+     */
+    UnreadCountDTO getUnreadCount(UUID userId);
 
     /**
      * Deletes all messages related to a specific listing for the authenticated user.
@@ -7,12 +7,14 @@ import com.yasar.listigo.demo.entity.UserMetadata;
 import com.yasar.listigo.demo.exception.JwtTokenExpiredException;
 import com.yasar.listigo.demo.exception.JwtTokenGenerationException;
 import com.yasar.listigo.demo.exception.JwtTokenInvalidException;
+import com.yasar.listigo.demo.exception.LoginThrottledException;
 import com.yasar.listigo.demo.exception.UserAlreadyExistsException;
 import com.yasar.listigo.demo.exception.UserNotFoundException;
 import com.yasar.listigo.demo.exception.UserNotRegisteredException;
 import com.yasar.listigo.demo.exception.UserProfileNotUpdatedException;
 import com.yasar.listigo.demo.exception.InternalServerException;
 import com.yasar.listigo.demo.exception.InvalidPasswordException;
+import com.yasar.listigo.demo.security.VerifiedToken;
 
 import java.util.UUID;
 
@@ -35,14 +37,16 @@ public interface UserService {
     /**
      * Logs in a user and returns authentication tokens.
      *
-     * @param email    User's email
-     * @param password User's password
+     * @param email         User's email
+     * @param password      User's password
+     * @param clientAddress Address the request came from, for throttling failed attempts
      * @return Authentication response with tokens
+     * @throws LoginThrottledException if the email or address has failed too often recently
      * @throws UserNotFoundException if user is not found or credentials are invalid
      * @throws JwtTokenGenerationException if token generation fails
      * @throws InternalServerException for unexpected errors during login
      */
-    AuthResponse handleLoginUser(String email, String password);
+    AuthResponse handleLoginUser(String email, String password, String clientAddress);
 
     /**
      * Retrieves the current user's profile.
@@ -71,13 +75,30 @@ public interface UserService {
      * @param refreshToken Current refresh token
      * @return Updated authentication response with new tokens
      * @throws UserNotFoundException if user is not found
-     * @throws JwtTokenInvalidException if the refresh token is invalid
+     * @throws JwtTokenInvalidException if the refresh token is unknown, or was already used, which revokes its family
      * @throws JwtTokenExpiredException if the refresh token has expired
      * @throws JwtTokenGenerationException if new token generation fails
      * @throws InternalServerException for unexpected errors during token refresh
      */
     AuthResponse handleRefreshToken(String refreshToken);
 
+    /**
+     * Signs out the current session: revokes the access token used for the request and,
+     * if given, the refresh token family it belongs to.
+     *
+     * @param accessToken  Verified access token of the current request
+     * @param refreshToken Refresh token of the session, may be null
+     */
+    void handleLogout(VerifiedToken accessToken, String refreshToken);
+
+    /**
+     * Signs the user out of every device: revokes all access tokens issued so far and all
+     * refresh tokens.
+     *
+     * @param userId Current user's ID (from JWT)
+     */
+    void handleLogoutAll(UUID userId);
+
     /**
      * Changes the password for the specified user.
      *
@@ -1,13 +1,17 @@
 package com.yasar.listigo.demo.service.impl;
 
 import com.yasar.listigo.demo.dto.CategoryDTO;
+import com.yasar.listigo.demo.dto.ResourceVersionDTO;
 import com.yasar.listigo.demo.entity.Category;
 import com.yasar.listigo.demo.exception.CategoryNotCreatedException;
 import com.yasar.listigo.demo.exception.CategoryNotDeletedException;
 import com.yasar.listigo.demo.exception.CategoryNotFoundException;
 import com.yasar.listigo.demo.exception.CategoryNotUpdatedException;
 import com.yasar.listigo.demo.repository.CategoryRepository;
+import com.yasar.listigo.demo.repository.projection.CollectionVersion;
+import com.yasar.listigo.demo.repository.projection.EntityVersion;
 import com.yasar.listigo.demo.service.CategoryService;
+import com.yasar.listigo.demo.util.DateTimeFactory;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
@@ -22,6 +26,7 @@ import java.util.stream.Collectors;
 public class CategoryServiceImpl implements CategoryService {
 
     private final CategoryRepository categoryRepository;
+    private final DateTimeFactory dateTimeFactory;
 
     @Override
     @Transactional
@@ -34,6 +39,7 @@ public class CategoryServiceImpl implements CategoryService {
         try {
             Category category = new Category();
             category.setCategoryName(categoryDTO.getCategoryName());
+            category.setUpdatedAt(dateTimeFactory.now());
             Category savedCategory = categoryRepository.save(category);
             log.info("Category created with ID: {}", savedCategory.getCategoryId());
             return mapToDTO(savedCategory);
@@ -60,6 +66,7 @@ public class CategoryServiceImpl implements CategoryService {
 
         try {
             category.setCategoryName(categoryDTO.getCategoryName());
+            category.setUpdatedAt(dateTimeFactory.now());
             Category updatedCategory = categoryRepository.save(category);
             log.info("Category updated with ID: {}", categoryId);
             return mapToDTO(updatedCategory);
@@ -116,6 +123,24 @@ public class CategoryServiceImpl implements CategoryService {
         return categories.stream().map(this::mapToDTO).collect(Collectors.toList());
     }
 
+    @Override
+    public ResourceVersionDTO getCategoryVersion(Long categoryId) {
+        EntityVersion version = categoryRepository.findVersionById(categoryId)
+                .orElseThrow(() -> {
+                    log.warn("Category not found with ID: {}", categoryId);
+                    return new CategoryNotFoundException("Category not found with ID: " + categoryId);
+                });
+        return new ResourceVersionDTO("category-" + categoryId + "-" + version.getVersion(), version.getUpdatedAt());
+    }
+
+    @Override
+    public ResourceVersionDTO getAllCategoriesVersion() {
+        CollectionVersion version = categoryRepository.findCollectionVersion();
+        // Count and ID sum change on every insert or delete, the version sum on every update
+        String eTag = "categories-" + version.getCount() + "-" + version.getIdSum() + "-" + version.getVersionSum();
+        return new ResourceVersionDTO(eTag, version.getUpdatedAt());
+    }
+
     private CategoryDTO mapToDTO(Category category) {
         CategoryDTO dto = new CategoryDTO();
         dto.setCategoryId(category.getCategoryId());
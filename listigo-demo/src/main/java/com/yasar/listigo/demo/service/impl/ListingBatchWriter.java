@@ -0,0 +1,89 @@
+package com.yasar.listigo.demo.service.impl;
+
+import com.yasar.listigo.demo.converter.ListingDtoConverter;
+import com.yasar.listigo.demo.dto.ListingDTO;
+import com.yasar.listigo.demo.entity.Category;
+import com.yasar.listigo.demo.entity.Listing;
+import com.yasar.listigo.demo.entity.UserMetadata;
+import com.yasar.listigo.demo.event.ListingChangedEvent;
+import com.yasar.listigo.demo.repository.CategoryRepository;
+import com.yasar.listigo.demo.repository.ListingRepository;
+import com.yasar.listigo.demo.repository.UserRepository;
+import com.yasar.listigo.demo.util.DateTimeFactory;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.stream.Collectors;
+
+/**
+ * Validates and inserts listings in chunks, shared by bulk creation and feed imports.
+ */
+@Component
+@RequiredArgsConstructor
+class ListingBatchWriter {
+
+    private final ListingRepository listingRepository;
+    private final UserRepository userRepository;
+    private final CategoryRepository categoryRepository;
+    private final ListingDtoConverter listingDtoConverter;
+    private final DateTimeFactory dateTimeFactory;
+    private final ApplicationEventPublisher eventPublisher;
+    private final Validator validator;
+
+    /**
+     * Checks the listing against the ListingDTO constraints and the known categories.
+     *
+     * @param listingDTO  listing to check
+     * @param categoryIds IDs of all categories
+     * @return why the listing is invalid, or null if it is valid
+     */
+    String validate(ListingDTO listingDTO, Set<Long> categoryIds) {
+        Set<ConstraintViolation<ListingDTO>> violations = validator.validate(listingDTO);
+        if (!violations.isEmpty()) {
+            return violations.stream()
+                    .map(ConstraintViolation::getMessage)
+                    .sorted()
+                    .collect(Collectors.joining(", "));
+        }
+        if (!categoryIds.contains(listingDTO.getCategoryId())) {
+            return "Category not found with ID: " + listingDTO.getCategoryId();
+        }
+        return null;
+    }
+
+    /**
+     * Persists one chunk of validated listings; must run in a transaction. IDs come from the
+     * pooled listings_seq, so Hibernate assigns them without a round trip per row and sends
+     * the inserts as JDBC batches on flush.
+     *
+     * @param userId   owner of the listings
+     * @param chunk    listings to insert
+     * @return IDs of the inserted listings, in the order given
+     */
+    List<Long> insertChunk(UUID userId, List<ListingDTO> chunk) {
+        UserMetadata user = userRepository.getReferenceById(userId);
+        LocalDateTime now = dateTimeFactory.now();
+        List<Listing> listings = new ArrayList<>(chunk.size());
+        for (ListingDTO listingDTO : chunk) {
+            Category category = categoryRepository.getReferenceById(listingDTO.getCategoryId());
+            listings.add(listingDtoConverter.toListing(user, category, listingDTO, now));
+        }
+        listingRepository.saveAll(listings);
+
+        List<Long> listingIds = new ArrayList<>(listings.size());
+        for (Listing listing : listings) {
+            listingIds.add(listing.getListingId());
+            eventPublisher.publishEvent(new ListingChangedEvent(listing.getListingId(), null,
+                    listingDtoConverter.toListingDTO(listing)));
+        }
+        return listingIds;
+    }
+}
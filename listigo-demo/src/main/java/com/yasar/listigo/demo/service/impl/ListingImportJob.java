@@ -0,0 +1,125 @@
+package com.yasar.listigo.demo.service.impl;
+
+import com.yasar.listigo.demo.dto.ListingImportErrorDTO;
+import com.yasar.listigo.demo.dto.ListingImportFormat;
+import com.yasar.listigo.demo.dto.ListingImportStatusDTO;
+import lombok.Getter;
+
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Progress of one listing import. Counters are updated by the pipeline stages and read by
+ * status requests concurrently, so every field is atomic or volatile.
+ */
+final class ListingImportJob {
+
+    @Getter
+    private final UUID jobId;
+    @Getter
+    private final UUID userId;
+    @Getter
+    private final ListingImportFormat format;
+    private final String fileName;
+    @Getter
+    private final Path file;
+    private final LocalDateTime startedAt;
+    private final long startedNanos = System.nanoTime();
+    private final int maxReportedErrors;
+
+    private final AtomicLong rowsRead = new AtomicLong();
+    private final AtomicLong rowsImported = new AtomicLong();
+    private final AtomicLong rowsFailed = new AtomicLong();
+    private final List<ListingImportErrorDTO> errors = new ArrayList<>();
+
+    private volatile String failure;
+    @Getter
+    private volatile boolean cancelled;
+    private volatile LocalDateTime finishedAt;
+    private volatile long finishedNanos;
+
+    ListingImportJob(UUID userId, ListingImportFormat format, String fileName, Path file,
+                     LocalDateTime startedAt, int maxReportedErrors) {
+        this.jobId = UUID.randomUUID();
+        this.userId = userId;
+        this.format = format;
+        this.fileName = fileName;
+        this.file = file;
+        this.startedAt = startedAt;
+        this.maxReportedErrors = maxReportedErrors;
+    }
+
+    void rowRead() {
+        rowsRead.incrementAndGet();
+    }
+
+    void rowsImported(int count) {
+        rowsImported.addAndGet(count);
+    }
+
+    void rowFailed(long row, String message) {
+        rowsFailed.incrementAndGet();
+        synchronized (errors) {
+            if (errors.size() < maxReportedErrors) {
+                errors.add(new ListingImportErrorDTO(row, message));
+            }
+        }
+    }
+
+    /**
+     * Marks the job failed while letting the stages drain the rows already read.
+     */
+    synchronized void fail(String message) {
+        if (failure == null) {
+            failure = message;
+        }
+    }
+
+    /**
+     * Marks the job failed and makes every stage stop at its next queue operation.
+     */
+    void cancel(String message) {
+        fail(message);
+        cancelled = true;
+    }
+
+    void finish(LocalDateTime now) {
+        finishedNanos = System.nanoTime();
+        finishedAt = now;
+    }
+
+    boolean isFinished() {
+        return finishedAt != null;
+    }
+
+    boolean isExpired(long retentionNanos) {
+        return isFinished() && System.nanoTime() - finishedNanos > retentionNanos;
+    }
+
+    ListingImportStatusDTO toStatusDTO() {
+        LocalDateTime finished = finishedAt;
+        long elapsedNanos = (finished != null ? finishedNanos : System.nanoTime()) - startedNanos;
+
+        ListingImportStatusDTO dto = new ListingImportStatusDTO();
+        dto.setJobId(jobId);
+        dto.setStatus(finished == null ? ListingImportStatusDTO.Status.RUNNING
+                : failure != null ? ListingImportStatusDTO.Status.FAILED : ListingImportStatusDTO.Status.COMPLETED);
+        dto.setFormat(format);
+        dto.setFileName(fileName);
+        dto.setRowsRead(rowsRead.get());
+        dto.setRowsImported(rowsImported.get());
+        dto.setRowsFailed(rowsFailed.get());
+        dto.setRowsPerSecond(elapsedNanos > 0 ? rowsImported.get() * 1_000_000_000.0 / elapsedNanos : 0);
+        dto.setStartedAt(startedAt);
+        dto.setFinishedAt(finished);
+        dto.setFailure(finished != null ? failure : null);
+        synchronized (errors) {
+            dto.setErrors(new ArrayList<>(errors));
+        }
+        return dto;
+    }
+}
@@ -0,0 +1,423 @@
+package com.yasar.listigo.demo.service.impl;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.MappingIterator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.dataformat.csv.CsvMapper;
+import com.fasterxml.jackson.dataformat.csv.CsvParser;
+import com.yasar.listigo.demo.dto.ListingDTO;
+import com.yasar.listigo.demo.dto.ListingImportFormat;
+import com.yasar.listigo.demo.dto.ListingImportStatusDTO;
+import com.yasar.listigo.demo.exception.InternalServerException;
+import com.yasar.listigo.demo.exception.ListingImportNotFoundException;
+import com.yasar.listigo.demo.exception.ListingImportRejectedException;
+import com.yasar.listigo.demo.exception.ListingImportTooLargeException;
+import com.yasar.listigo.demo.exception.UserNotFoundException;
+import com.yasar.listigo.demo.repository.CategoryRepository;
+import com.yasar.listigo.demo.repository.UserRepository;
+import com.yasar.listigo.demo.service.ListingImportService;
+import com.yasar.listigo.demo.util.DateTimeFactory;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.util.unit.DataSize;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Imports listing feeds through three stages, each on its own virtual thread: parsing the
+ * stored upload, validating rows, and persisting them in chunked transactions. The stages
+ * are connected by bounded queues, so a slow database blocks the validator, which in turn
+ * blocks the parser, and memory use stays bounded by the queue capacity however large the
+ * file is.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class ListingImportServiceImpl implements ListingImportService {
+
+    /**
+     * A record of the file, either parsed into a listing or carrying why it could not be.
+     */
+    private record ParsedRow(long row, ListingDTO listing, String error) {
+    }
+
+    private static final ParsedRow END = new ParsedRow(0, null, null);
+
+    private static final long QUEUE_POLL_MS = 100;
+
+    private static final int COPY_BUFFER_SIZE = 64 * 1024;
+
+    private static final ObjectReader CSV_READER = new CsvMapper()
+            .readerFor(String[].class)
+            .with(CsvParser.Feature.WRAP_AS_ARRAY)
+            .with(CsvParser.Feature.SKIP_EMPTY_LINES);
+
+    private final UserRepository userRepository;
+    private final CategoryRepository categoryRepository;
+    private final ListingBatchWriter listingBatchWriter;
+    private final DateTimeFactory dateTimeFactory;
+    private final ObjectMapper objectMapper;
+    private final PlatformTransactionManager transactionManager;
+
+    private final ConcurrentMap<UUID, ListingImportJob> jobs = new ConcurrentHashMap<>();
+    private final AtomicInteger runningJobs = new AtomicInteger();
+
+    @Value("${listing.import.directory}")
+    private Path importDirectory;
+
+    @Value("${listing.import.max-size}")
+    private DataSize maxSize;
+
+    @Value("${listing.import.queue-capacity}")
+    private int queueCapacity;
+
+    @Value("${listing.import.max-concurrent-jobs}")
+    private int maxConcurrentJobs;
+
+    @Value("${listing.import.max-reported-errors}")
+    private int maxReportedErrors;
+
+    @Value("${listing.import.retention-ms}")
+    private long retentionMs;
+
+    @Value("${listing.bulk.chunk-size}")
+    private int chunkSize;
+
+    @Override
+    public ListingImportStatusDTO startImport(UUID userId, InputStream body, long contentLength, String contentType,
+                                              String fileName, ListingImportFormat format) {
+        if (contentLength > maxSize.toBytes()) {
+            throw new ListingImportTooLargeException("Import feed exceeds the maximum size of " + maxSize);
+        }
+        ListingImportFormat resolvedFormat = format != null ? format : ListingImportFormat.ofContentType(contentType);
+        if (resolvedFormat == null) {
+            resolvedFormat = ListingImportFormat.ofFileName(fileName);
+        }
+        if (!userRepository.existsById(userId)) {
+            log.warn("User not found with ID: {}", userId);
+            throw new UserNotFoundException("User not found with ID: " + userId);
+        }
+        Set<Long> categoryIds = new HashSet<>(categoryRepository.findAllIds());
+
+        if (runningJobs.incrementAndGet() > maxConcurrentJobs) {
+            runningJobs.decrementAndGet();
+            log.warn("Rejected listing import for user {}: {} imports already running", userId, maxConcurrentJobs);
+            throw new ListingImportRejectedException("Too many imports are running, try again later");
+        }
+
+        ListingImportJob job;
+        Path stored = null;
+        try {
+            // Copying the body to a file lets the job outlive the request without ever holding
+            // the feed in memory
+            Files.createDirectories(importDirectory);
+            stored = Files.createTempFile(importDirectory, "listing-import-",
+                    "." + resolvedFormat.name().toLowerCase(Locale.ROOT));
+            store(body, stored);
+            job = new ListingImportJob(userId, resolvedFormat, fileName, stored, dateTimeFactory.now(),
+                    maxReportedErrors);
+        } catch (IOException | RuntimeException ex) {
+            runningJobs.decrementAndGet();
+            deleteQuietly(stored);
+            if (ex instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            log.error("Exception occurred while storing listing import of user {}: {}", userId, ex.getMessage());
+            throw new InternalServerException("Error occurred while storing import file: " + ex.getMessage());
+        }
+
+        jobs.put(job.getJobId(), job);
+        Thread.ofVirtual().name("listing-import-" + job.getJobId()).start(() -> run(job, categoryIds));
+        log.info("Started listing import {} of {} file '{}' for user: {}", job.getJobId(), resolvedFormat,
+                fileName, userId);
+        return job.toStatusDTO();
+    }
+
+    @Override
+    public ListingImportStatusDTO getImportStatus(UUID userId, UUID jobId) {
+        ListingImportJob job = jobs.get(jobId);
+        if (job == null || !job.getUserId().equals(userId)) {
+            log.warn("Import job not found with ID: {} for user: {}", jobId, userId);
+            throw new ListingImportNotFoundException("Import job not found with ID: " + jobId);
+        }
+        return job.toStatusDTO();
+    }
+
+    @Scheduled(fixedDelayString = "${listing.import.retention-ms}")
+    public void purgeFinishedJobs() {
+        long retentionNanos = TimeUnit.MILLISECONDS.toNanos(retentionMs);
+        jobs.values().removeIf(job -> job.isExpired(retentionNanos));
+    }
+
+    @PreDestroy
+    public void cancelRunningJobs() {
+        jobs.values().stream()
+                .filter(job -> !job.isFinished())
+                .forEach(job -> job.cancel("Import cancelled by shutdown"));
+    }
+
+    /**
+     * Copies the body to the file, failing as soon as it grows past the maximum size rather
+     * than trusting the declared length.
+     */
+    private void store(InputStream body, Path target) throws IOException {
+        long limit = maxSize.toBytes();
+        long total = 0;
+        byte[] buffer = new byte[COPY_BUFFER_SIZE];
+        try (OutputStream out = Files.newOutputStream(target)) {
+            int read;
+            while ((read = body.read(buffer)) != -1) {
+                total += read;
+                if (total > limit) {
+                    throw new ListingImportTooLargeException("Import feed exceeds the maximum size of " + maxSize);
+                }
+                out.write(buffer, 0, read);
+            }
+        }
+        if (total == 0) {
+            throw new IllegalArgumentException("Import feed cannot be empty");
+        }
+    }
+
+    private static void deleteQuietly(Path file) {
+        if (file == null) {
+            return;
+        }
+        try {
+            Files.deleteIfExists(file);
+        } catch (IOException ex) {
+            log.warn("Could not delete import file {}: {}", file, ex.getMessage());
+        }
+    }
+
+    private void run(ListingImportJob job, Set<Long> categoryIds) {
+        BlockingQueue<ParsedRow> parsed = new ArrayBlockingQueue<>(queueCapacity);
+        BlockingQueue<ParsedRow> validated = new ArrayBlockingQueue<>(queueCapacity);
+        String name = "listing-import-" + job.getJobId();
+        Thread parser = Thread.ofVirtual().name(name + "-parse").start(() -> parse(job, parsed));
+        Thread checker = Thread.ofVirtual().name(name + "-validate").start(() -> validate(job, parsed, validated, categoryIds));
+        try {
+            persist(job, validated);
+            parser.join();
+            checker.join();
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            job.cancel("Import interrupted");
+        } finally {
+            try {
+                Files.deleteIfExists(job.getFile());
+            } catch (IOException ex) {
+                log.warn("Could not delete listing import file {}: {}", job.getFile(), ex.getMessage());
+            }
+            job.finish(dateTimeFactory.now());
+            runningJobs.decrementAndGet();
+            ListingImportStatusDTO status = job.toStatusDTO();
+            log.info("Listing import {} {}: {} rows read, {} imported, {} failed, {} rows/s", job.getJobId(),
+                    status.getStatus(), status.getRowsRead(), status.getRowsImported(), status.getRowsFailed(),
+                    Math.round(status.getRowsPerSecond()));
+        }
+    }
+
+    private void parse(ListingImportJob job, BlockingQueue<ParsedRow> out) {
+        try (BufferedReader reader = Files.newBufferedReader(job.getFile(), StandardCharsets.UTF_8)) {
+            if (job.getFormat() == ListingImportFormat.CSV) {
+                parseCsv(job, reader, out);
+            } else {
+                parseNdjson(job, reader, out);
+            }
+        } catch (IOException | RuntimeException ex) {
+            // Rows read before the malformed part are still imported
+            log.warn("Listing import {} stopped reading its file: {}", job.getJobId(), ex.getMessage());
+            job.fail("Error occurred while reading the file: " + ex.getMessage());
+        } finally {
+            send(job, out, END);
+        }
+    }
+
+    private void parseNdjson(ListingImportJob job, BufferedReader reader, BlockingQueue<ParsedRow> out)
+            throws IOException {
+        long row = 0;
+        String line;
+        while ((line = reader.readLine()) != null) {
+            if (line.isBlank()) {
+                continue;
+            }
+            job.rowRead();
+            row++;
+            ParsedRow parsed;
+            try {
+                parsed = new ParsedRow(row, objectMapper.readValue(line, ListingDTO.class), null);
+            } catch (JsonProcessingException ex) {
+                parsed = new ParsedRow(row, null, "Malformed JSON: " + ex.getOriginalMessage());
+            }
+            if (!send(job, out, parsed)) {
+                return;
+            }
+        }
+    }
+
+    private void parseCsv(ListingImportJob job, BufferedReader reader, BlockingQueue<ParsedRow> out)
+            throws IOException {
+        try (MappingIterator<String[]> records = CSV_READER.readValues(reader)) {
+            if (!records.hasNextValue()) {
+                job.fail("CSV file has no header row");
+                return;
+            }
+            String[] header = Arrays.stream(records.nextValue()).map(String::trim).toArray(String[]::new);
+
+            long row = 0;
+            while (records.hasNextValue()) {
+                String[] values = records.nextValue();
+                job.rowRead();
+                if (!send(job, out, toParsedRow(++row, header, values))) {
+                    return;
+                }
+            }
+        }
+    }
+
+    private ParsedRow toParsedRow(long row, String[] header, String[] values) {
+        if (values.length > header.length) {
+            return new ParsedRow(row, null, "Row has " + values.length + " columns, header has " + header.length);
+        }
+        Map<String, Object> fields = new HashMap<>();
+        for (int i = 0; i < values.length; i++) {
+            String value = values[i].trim();
+            if (!value.isEmpty()) {
+                fields.put(header[i], "photos".equals(header[i]) ? Arrays.asList(value.split("\\|")) : value);
+            }
+        }
+        try {
+            return new ParsedRow(row, objectMapper.convertValue(fields, ListingDTO.class), null);
+        } catch (IllegalArgumentException ex) {
+            String message = ex.getCause() instanceof JsonProcessingException cause
+                    ? cause.getOriginalMessage() : ex.getMessage();
+            return new ParsedRow(row, null, "Invalid value: " + message);
+        }
+    }
+
+    private void validate(ListingImportJob job, BlockingQueue<ParsedRow> in, BlockingQueue<ParsedRow> out,
+                          Set<Long> categoryIds) {
+        try {
+            ParsedRow row;
+            while ((row = receive(job, in)) != null && row != END) {
+                String error = row.error();
+                if (error == null) {
+                    row.listing().setUserId(job.getUserId().toString());
+                    error = listingBatchWriter.validate(row.listing(), categoryIds);
+                }
+                if (error != null) {
+                    job.rowFailed(row.row(), error);
+                } else if (!send(job, out, row)) {
+                    return;
+                }
+            }
+        } catch (RuntimeException ex) {
+            log.error("Listing import {} failed while validating", job.getJobId(), ex);
+            job.cancel("Error occurred while validating rows: " + ex.getMessage());
+        } finally {
+            send(job, out, END);
+        }
+    }
+
+    private void persist(ListingImportJob job, BlockingQueue<ParsedRow> in) {
+        TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+        List<ParsedRow> chunk = new ArrayList<>(chunkSize);
+        try {
+            ParsedRow row;
+            while ((row = receive(job, in)) != null && row != END) {
+                chunk.add(row);
+                if (chunk.size() == chunkSize) {
+                    persistChunk(job, transaction, chunk);
+                    chunk.clear();
+                }
+            }
+            if (row == END && !chunk.isEmpty()) {
+                persistChunk(job, transaction, chunk);
+            }
+        } catch (RuntimeException ex) {
+            log.error("Listing import {} failed while persisting", job.getJobId(), ex);
+            job.cancel("Error occurred while persisting rows: " + ex.getMessage());
+        }
+    }
+
+    private void persistChunk(ListingImportJob job, TransactionTemplate transaction, List<ParsedRow> chunk) {
+        try {
+            List<ListingDTO> listings = chunk.stream().map(ParsedRow::listing).toList();
+            transaction.executeWithoutResult(status -> listingBatchWriter.insertChunk(job.getUserId(), listings));
+            job.rowsImported(chunk.size());
+        } catch (Exception ex) {
+            log.error("Listing import {} failed to commit rows {} to {}: {}", job.getJobId(),
+                    chunk.get(0).row(), chunk.get(chunk.size() - 1).row(), ex.getMessage());
+            String message = "Error occurred while creating listing: " + ex.getMessage();
+            chunk.forEach(row -> job.rowFailed(row.row(), message));
+        }
+    }
+
+    /**
+     * Blocks until the next stage has room for the row.
+     *
+     * @return false if the job was cancelled while waiting
+     */
+    private static boolean send(ListingImportJob job, BlockingQueue<ParsedRow> queue, ParsedRow row) {
+        try {
+            while (!job.isCancelled()) {
+                if (queue.offer(row, QUEUE_POLL_MS, TimeUnit.MILLISECONDS)) {
+                    return true;
+                }
+            }
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            job.cancel("Import interrupted");
+        }
+        return false;
+    }
+
+    /**
+     * Blocks until the previous stage hands over a row.
+     *
+     * @return the row, or null if the job was cancelled while waiting
+     */
+    private static ParsedRow receive(ListingImportJob job, BlockingQueue<ParsedRow> queue) {
+        try {
+            while (!job.isCancelled()) {
+                ParsedRow row = queue.poll(QUEUE_POLL_MS, TimeUnit.MILLISECONDS);
+                if (row != null) {
+                    return row;
+                }
+            }
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            job.cancel("Import interrupted");
+        }
+        return null;
+    }
+}
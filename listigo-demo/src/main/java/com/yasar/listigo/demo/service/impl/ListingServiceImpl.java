@@ -1,11 +1,29 @@
 package com.yasar.listigo.demo.service.impl;
 
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.yasar.listigo.demo.cache.ListingDetailCache;
 import com.yasar.listigo.demo.converter.ListingDtoConverter;
+import com.yasar.listigo.demo.dto.AutocompleteField;
+import com.yasar.listigo.demo.dto.FacetCountDTO;
+import com.yasar.listigo.demo.dto.ListingBatchDTO;
+import com.yasar.listigo.demo.dto.ListingBulkItemResultDTO;
+import com.yasar.listigo.demo.dto.ListingBulkResultDTO;
 import com.yasar.listigo.demo.dto.ListingDTO;
+import com.yasar.listigo.demo.dto.ListingCursor;
+import com.yasar.listigo.demo.dto.ListingFacetsDTO;
 import com.yasar.listigo.demo.dto.ListingFilterDTO;
+import com.yasar.listigo.demo.dto.ListingPageDTO;
+import com.yasar.listigo.demo.dto.ListingSearchResultDTO;
+import com.yasar.listigo.demo.dto.ListingSort;
+import com.yasar.listigo.demo.dto.ListingSummaryDTO;
+import com.yasar.listigo.demo.dto.ResourceVersionDTO;
 import com.yasar.listigo.demo.entity.Category;
 import com.yasar.listigo.demo.entity.Listing;
 import com.yasar.listigo.demo.entity.UserMetadata;
+import com.yasar.listigo.demo.event.ListingChangedEvent;
+import com.yasar.listigo.demo.exception.IndexNotReadyException;
 import com.yasar.listigo.demo.exception.InternalServerException;
 import com.yasar.listigo.demo.exception.ListingNotCreatedException;
 import com.yasar.listigo.demo.exception.ListingNotDeletedException;
@@ -17,17 +35,43 @@ import com.yasar.listigo.demo.exception.UserNotFoundException;
 import com.yasar.listigo.demo.repository.CategoryRepository;
 import com.yasar.listigo.demo.repository.ListingRepository;
 import com.yasar.listigo.demo.repository.UserRepository;
+import com.yasar.listigo.demo.repository.projection.EntityVersion;
+import com.yasar.listigo.demo.repository.projection.ListingSearchHit;
+import com.yasar.listigo.demo.search.ListingAutocompleteIndex;
+import com.yasar.listigo.demo.search.ListingFacetIndex;
+import com.yasar.listigo.demo.search.ListingSearchIndex;
+import com.yasar.listigo.demo.search.SearchHit;
 import com.yasar.listigo.demo.service.ListingService;
 import com.yasar.listigo.demo.util.DateTimeFactory;
+import com.yasar.listigo.demo.util.SearchHighlights;
+import com.yasar.listigo.demo.util.SingleFlight;
+import jakarta.persistence.EntityManager;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.roaringbitmap.RoaringBitmap;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
 import org.springframework.transaction.annotation.Transactional;
-
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Iterator;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 import java.util.UUID;
+import java.util.function.Function;
 import java.util.regex.Pattern;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 @Slf4j
 @RequiredArgsConstructor
@@ -39,6 +83,42 @@ public class ListingServiceImpl implements ListingService {
     private final CategoryRepository categoryRepository;
     private final DateTimeFactory dateTimeFactory;
     private final ListingDtoConverter listingDtoConverter;
+    private final EntityManager entityManager;
+    private final ObjectMapper objectMapper;
+    private final ApplicationEventPublisher eventPublisher;
+    private final ListingSearchIndex listingSearchIndex;
+    private final ListingFacetIndex listingFacetIndex;
+    private final ListingAutocompleteIndex listingAutocompleteIndex;
+    private final PlatformTransactionManager transactionManager;
+    private final ListingBatchWriter listingBatchWriter;
+    private final ListingDetailCache listingDetailCache;
+
+    @Value("${listing.page.default-size}")
+    private int defaultPageSize;
+
+    @Value("${listing.page.max-size}")
+    private int maxPageSize;
+
+    @Value("${listing.export.clear-interval}")
+    private int exportClearInterval;
+
+    @Value("${listing.bulk.chunk-size}")
+    private int bulkChunkSize;
+
+    private static final int MAX_SEARCH_QUERY_LENGTH = 255;
+
+    private final SingleFlight<Long, ListingDTO> listingReads = new SingleFlight<>();
+    private final SingleFlight<FilteredPageKey, ListingPageDTO<ListingDTO>> filteredPageReads = new SingleFlight<>();
+    private final SingleFlight<FilteredPageKey, ListingPageDTO<ListingSummaryDTO>> filteredSummaryReads =
+            new SingleFlight<>();
+
+    /**
+     * Identifies equivalent filtered page requests for coalescing.
+     */
+    private record FilteredPageKey(ListingFilterDTO filter, String cursor, int size, ListingSort sort) {
+    }
+
+    private static final int MAX_AUTOCOMPLETE_PREFIX_LENGTH = 100;
 
     private static final Pattern URL_PATTERN = Pattern.compile(
             "^https?://[a-zA-Z0-9.-]+(?:\\.[a-zA-Z]{2,})+(?:/[^#\\s]*)?\\.(?:png|jpg|jpeg|gif)$"
@@ -60,29 +140,64 @@ public class ListingServiceImpl implements ListingService {
                 });
 
         try {
-            Listing listing = new Listing();
-            listing.setUser(user);
-            listing.setCategory(category);
-            listing.setTitle(listingDTO.getTitle());
-            listing.setDescription(listingDTO.getDescription());
-            listing.setPrice(listingDTO.getPrice());
-            listing.setBrand(listingDTO.getBrand());
-            listing.setModel(listingDTO.getModel());
-            listing.setYear(listingDTO.getYear());
-            listing.setMileage(listingDTO.getMileage());
-            listing.setLocation(listingDTO.getLocation());
-            listing.setPhotos(listingDTO.getPhotos());
-            listing.setCreatedAt(dateTimeFactory.now());
-
+            Listing listing = listingDtoConverter.toListing(user, category, listingDTO, dateTimeFactory.now());
             Listing savedListing = listingRepository.save(listing);
+            ListingDTO created = listingDtoConverter.toListingDTO(savedListing);
+            eventPublisher.publishEvent(new ListingChangedEvent(savedListing.getListingId(), null, created));
             log.info("Listing created with ID: {} for user: {}", savedListing.getListingId(), userId);
-            return listingDtoConverter.toListingDTO(savedListing);
+            return created;
         } catch (Exception ex) {
             log.error("Exception occurred while creating listing for user: {}", userId, ex);
             throw new ListingNotCreatedException("Error occurred while creating listing: " + ex.getMessage());
         }
     }
 
+    @Override
+    public ListingBulkResultDTO bulkCreateListings(UUID userId, List<ListingDTO> listingDTOs) {
+        if (!userRepository.existsById(userId)) {
+            log.warn("User not found with ID: {}", userId);
+            throw new UserNotFoundException("User not found with ID: " + userId);
+        }
+        Set<Long> categoryIds = new HashSet<>(categoryRepository.findAllIds());
+
+        ListingBulkItemResultDTO[] results = new ListingBulkItemResultDTO[listingDTOs.size()];
+        List<Integer> accepted = new ArrayList<>(listingDTOs.size());
+        for (int index = 0; index < listingDTOs.size(); index++) {
+            String error = listingBatchWriter.validate(listingDTOs.get(index), categoryIds);
+            if (error != null) {
+                results[index] = ListingBulkItemResultDTO.failed(index, error);
+            } else {
+                accepted.add(index);
+            }
+        }
+
+        // Each chunk commits on its own, so a failing chunk only fails its own listings and
+        // the persistence context never holds more than one chunk
+        TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+        for (int from = 0; from < accepted.size(); from += bulkChunkSize) {
+            List<Integer> chunk = accepted.subList(from, Math.min(from + bulkChunkSize, accepted.size()));
+            try {
+                List<ListingDTO> chunkDTOs = chunk.stream().map(listingDTOs::get).toList();
+                List<Long> listingIds = transaction.execute(status -> listingBatchWriter.insertChunk(userId, chunkDTOs));
+                for (int i = 0; i < chunk.size(); i++) {
+                    results[chunk.get(i)] = ListingBulkItemResultDTO.created(chunk.get(i), listingIds.get(i));
+                }
+            } catch (Exception ex) {
+                log.error("Exception occurred while bulk creating listings for user: {}", userId, ex);
+                for (int index : chunk) {
+                    results[index] = ListingBulkItemResultDTO.failed(index,
+                            "Error occurred while creating listing: " + ex.getMessage());
+                }
+            }
+        }
+
+        int created = (int) Arrays.stream(results)
+                .filter(result -> result.getStatus() == ListingBulkItemResultDTO.Status.CREATED)
+                .count();
+        log.info("Bulk created {} of {} listings for user: {}", created, results.length, userId);
+        return new ListingBulkResultDTO(created, results.length - created, Arrays.asList(results));
+    }
+
     @Override
     @Transactional
     public ListingDTO updateListing(UUID userId, Long listingId, ListingDTO listingDTO) {
@@ -109,6 +224,7 @@ public class ListingServiceImpl implements ListingService {
                     return new ListingNotFoundException("Category not found with ID: " + listingDTO.getCategoryId());
                 });
 
+        ListingDTO previous = listingDtoConverter.toListingDTO(listing);
         try {
             listing.setCategory(category);
             listing.setTitle(listingDTO.getTitle());
@@ -120,10 +236,13 @@ public class ListingServiceImpl implements ListingService {
             listing.setMileage(listingDTO.getMileage());
             listing.setLocation(listingDTO.getLocation());
             listing.setPhotos(listingDTO.getPhotos());
+            listing.setUpdatedAt(dateTimeFactory.now());
 
-            Listing updatedListing = listingRepository.save(listing);
+            Listing updatedListing = listingRepository.saveAndFlush(listing);
+            ListingDTO updated = listingDtoConverter.toListingDTO(updatedListing);
+            eventPublisher.publishEvent(new ListingChangedEvent(listingId, previous, updated));
             log.info("Listing updated with ID: {} for user: {}", listingId, userId);
-            return listingDtoConverter.toListingDTO(updatedListing);
+            return updated;
         } catch (Exception ex) {
             log.error("Exception occurred while updating listing {} for user: {}", listingId, userId, ex);
             throw new ListingNotUpdatedException("Error occurred while updating listing: " + ex.getMessage());
@@ -150,8 +269,10 @@ public class ListingServiceImpl implements ListingService {
             throw new ListingNotFoundException("User is not authorized to delete this listing");
         }
 
+        ListingDTO previous = listingDtoConverter.toListingDTO(listing);
         try {
             listingRepository.delete(listing);
+            eventPublisher.publishEvent(new ListingChangedEvent(listingId, previous, null));
             log.info("Listing deleted with ID: {} for user: {}", listingId, userId);
         } catch (Exception ex) {
             log.error("Exception occurred while deleting listing {} for user: {}", listingId, userId, ex);
@@ -160,66 +281,254 @@ public class ListingServiceImpl implements ListingService {
     }
 
     @Override
-    public List<ListingDTO> getUserListings(UUID userId) {
-        List<Listing> listings = listingRepository.findByUserUserId(userId);
-        if (listings.isEmpty()) {
+    public ListingPageDTO<ListingDTO> getUserListings(UUID userId, String cursor, Integer size, ListingSort sort) {
+        ListingCursor after = decodeCursor(cursor, sort);
+        int pageSize = resolvePageSize(size);
+        List<ListingDTO> listings = listingRepository.findPageByUserId(userId, sort, after, pageSize + 1);
+        if (listings.isEmpty() && after == null) {
             log.warn("No listings found for user: {}", userId);
             throw new ListingNotFoundException("No listings found for user: " + userId);
         }
 
-        log.info("Retrieved {} listings for user: {}", listings.size(), userId);
-        return listings.stream().map(this::mapToDTO).collect(Collectors.toList());
+        log.info("Retrieved {} listings for user: {}", Math.min(listings.size(), pageSize), userId);
+        return toPage(listings, pageSize, listing -> ListingCursor.of(sort, listing));
     }
 
     @Override
-    public ListingDTO getListingById(Long listingId) {
-        Listing listing = listingRepository.findById(listingId)
+    public ListingBatchDTO getListingsByIds(List<Long> listingIds) {
+        List<Long> requested = listingIds.stream().distinct().collect(Collectors.toList());
+        if (requested.size() > maxPageSize) {
+            throw new IllegalArgumentException("At most " + maxPageSize + " listings can be fetched at once");
+        }
+
+        Map<Long, ListingDTO> found;
+        try {
+            found = listingRepository.findAllByIds(requested).stream()
+                    .collect(Collectors.toMap(ListingDTO::getListingId, Function.identity()));
+        } catch (Exception ex) {
+            log.error("Exception occurred while retrieving listings by IDs: {}", ex.getMessage());
+            throw new InternalServerException("Error occurred while retrieving listings: " + ex.getMessage());
+        }
+
+        List<ListingDTO> listings = new ArrayList<>(found.size());
+        List<Long> missingIds = new ArrayList<>();
+        for (Long listingId : requested) {
+            ListingDTO listing = found.get(listingId);
+            if (listing != null) {
+                listings.add(listing);
+            } else {
+                missingIds.add(listingId);
+            }
+        }
+
+        log.info("Retrieved {} of {} requested listings", listings.size(), requested.size());
+        return new ListingBatchDTO(listings, missingIds);
+    }
+
+    @Override
+    public ResourceVersionDTO getListingVersion(Long listingId) {
+        EntityVersion version = listingRepository.findVersionById(listingId)
                 .orElseThrow(() -> {
                     log.warn("Listing not found with ID: {}", listingId);
                     return new ListingNotFoundException("Listing not found with ID: " + listingId);
                 });
+        return listingVersion(listingId, version.getVersion(), version.getUpdatedAt());
+    }
+
+    @Override
+    public ResourceVersionDTO getListingVersion(ListingDTO listing) {
+        return listingVersion(listing.getListingId(), listing.getVersion(), listing.getUpdatedAt());
+    }
 
-        log.info("Retrieved listing with ID: {}", listingId);
-        return listingDtoConverter.toListingDTO(listing);
+    private static ResourceVersionDTO listingVersion(Long listingId, Long version, LocalDateTime updatedAt) {
+        return new ResourceVersionDTO("listing-" + listingId + "-" + version, updatedAt);
     }
 
     @Override
-    public List<ListingDTO> getAllListings() {
+    public ListingDTO getListingById(Long listingId) {
+        return listingDetailCache.get(listingId, () -> listingReads.execute(listingId, () -> {
+            Listing listing = listingRepository.findById(listingId)
+                    .orElseThrow(() -> {
+                        log.warn("Listing not found with ID: {}", listingId);
+                        return new ListingNotFoundException("Listing not found with ID: " + listingId);
+                    });
+
+            log.info("Retrieved listing with ID: {}", listingId);
+            return listingDtoConverter.toListingDTO(listing);
+        }));
+    }
+
+    @Override
+    public ListingPageDTO<ListingDTO> getAllListings(String cursor, Integer size, ListingSort sort) {
+        ListingCursor after = decodeCursor(cursor, sort);
+        int pageSize = resolvePageSize(size);
+        List<ListingDTO> listings;
         try {
-            List<Listing> listings = listingRepository.findAll();
-            if (listings.isEmpty()) {
-                log.warn("No listings found");
-                throw new ListingNotFoundException("No listings found");
-            }
-            log.info("Retrieved {} listings", listings.size());
-            return listings.stream().map(this::mapToDTO).collect(Collectors.toList());
+            listings = listingRepository.findPage(sort, after, pageSize + 1);
         } catch (Exception ex) {
             log.error("Exception occurred while retrieving all listings: {}", ex.getMessage());
             throw new InternalServerException("Error occurred while retrieving all listings: " + ex.getMessage());
         }
+
+        if (listings.isEmpty() && after == null) {
+            log.warn("No listings found");
+            throw new ListingNotFoundException("No listings found");
+        }
+        log.info("Retrieved {} listings", Math.min(listings.size(), pageSize));
+        return toPage(listings, pageSize, listing -> ListingCursor.of(sort, listing));
+    }
+
+    @Override
+    public ListingPageDTO<ListingDTO> getFilteredListings(ListingFilterDTO filterDTO, String cursor, Integer size, ListingSort sort) {
+        ListingCursor after = decodeCursor(cursor, sort);
+        int pageSize = resolvePageSize(size);
+        ListingFilterDTO filter = normalize(filterDTO);
+        FilteredPageKey key = new FilteredPageKey(filter, cursor, pageSize, sort);
+
+        return filteredPageReads.execute(key, () -> {
+            try {
+                List<ListingDTO> listings = listingRepository.findPageByFilter(filter, sort, after, pageSize + 1);
+
+                log.info("Retrieved {} listings with filters: {}", Math.min(listings.size(), pageSize), filter);
+                return toPage(listings, pageSize, listing -> ListingCursor.of(sort, listing));
+            } catch (Exception ex) {
+                log.error("Exception occurred while filtering listings: {}", ex.getMessage());
+                throw new InternalServerException("Error occurred while filtering listings: " + ex.getMessage());
+            }
+        });
+    }
+
+    @Override
+    public ListingPageDTO<ListingSummaryDTO> getUserListingSummaries(UUID userId, String cursor, Integer size,
+                                                                     ListingSort sort) {
+        ListingCursor after = decodeCursor(cursor, sort);
+        int pageSize = resolvePageSize(size);
+        List<ListingSummaryDTO> listings = listingRepository.findSummaryPageByUserId(userId, sort, after, pageSize + 1);
+        if (listings.isEmpty() && after == null) {
+            log.warn("No listings found for user: {}", userId);
+            throw new ListingNotFoundException("No listings found for user: " + userId);
+        }
+
+        log.info("Retrieved {} listing summaries for user: {}", Math.min(listings.size(), pageSize), userId);
+        return toPage(listings, pageSize, listing -> ListingCursor.of(sort, listing));
+    }
+
+    @Override
+    public ListingPageDTO<ListingSummaryDTO> getAllListingSummaries(String cursor, Integer size, ListingSort sort) {
+        ListingCursor after = decodeCursor(cursor, sort);
+        int pageSize = resolvePageSize(size);
+        List<ListingSummaryDTO> listings;
+        try {
+            listings = listingRepository.findSummaryPage(sort, after, pageSize + 1);
+        } catch (Exception ex) {
+            log.error("Exception occurred while retrieving listing summaries: {}", ex.getMessage());
+            throw new InternalServerException("Error occurred while retrieving all listings: " + ex.getMessage());
+        }
+
+        if (listings.isEmpty() && after == null) {
+            log.warn("No listings found");
+            throw new ListingNotFoundException("No listings found");
+        }
+        log.info("Retrieved {} listing summaries", Math.min(listings.size(), pageSize));
+        return toPage(listings, pageSize, listing -> ListingCursor.of(sort, listing));
     }
 
     @Override
-    public List<ListingDTO> getFilteredListings(ListingFilterDTO filterDTO) {
+    public ListingPageDTO<ListingSummaryDTO> getFilteredListingSummaries(ListingFilterDTO filterDTO, String cursor,
+                                                                         Integer size, ListingSort sort) {
+        ListingCursor after = decodeCursor(cursor, sort);
+        int pageSize = resolvePageSize(size);
+        ListingFilterDTO filter = normalize(filterDTO);
+        FilteredPageKey key = new FilteredPageKey(filter, cursor, pageSize, sort);
+
+        return filteredSummaryReads.execute(key, () -> {
+            try {
+                List<ListingSummaryDTO> listings = listingRepository.findSummaryPageByFilter(filter, sort, after,
+                        pageSize + 1);
+
+                log.info("Retrieved {} listing summaries with filters: {}", Math.min(listings.size(), pageSize), filter);
+                return toPage(listings, pageSize, listing -> ListingCursor.of(sort, listing));
+            } catch (Exception ex) {
+                log.error("Exception occurred while filtering listing summaries: {}", ex.getMessage());
+                throw new InternalServerException("Error occurred while filtering listings: " + ex.getMessage());
+            }
+        });
+    }
+
+    @Override
+    public ListingFacetsDTO getListingFacets(ListingFilterDTO filterDTO) {
+        if (!listingFacetIndex.isReady()) {
+            log.warn("Facet counts requested before the listing facet index was loaded");
+            throw new IndexNotReadyException("Listing facets are not available yet, please retry shortly");
+        }
+
+        ListingFilterDTO filter = normalize(filterDTO);
+        RoaringBitmap textMatches = null;
+        String searchText = filter.getSearchText();
+        if (searchText != null) {
+            try {
+                textMatches = new RoaringBitmap();
+                for (Long listingId : listingRepository.findIdsMatchingText(searchText)) {
+                    textMatches.add(Math.toIntExact(listingId));
+                }
+            } catch (Exception ex) {
+                log.error("Exception occurred while matching search text for facets: {}", ex.getMessage());
+                throw new InternalServerException("Error occurred while counting listing facets: " + ex.getMessage());
+            }
+        }
+
+        ListingFacetsDTO facets = listingFacetIndex.count(filter, textMatches);
+        log.info("Counted facets for {} listings with filters: {}", facets.getTotal(), filter);
+        return facets;
+    }
+
+    @Override
+    public List<FacetCountDTO> autocomplete(AutocompleteField field, String prefix, Integer size) {
+        if (prefix == null) {
+            throw new IllegalArgumentException("Prefix cannot be null");
+        }
+        if (prefix.length() > MAX_AUTOCOMPLETE_PREFIX_LENGTH) {
+            throw new IllegalArgumentException("Prefix should not exceed " + MAX_AUTOCOMPLETE_PREFIX_LENGTH + " characters");
+        }
+
+        return listingAutocompleteIndex.complete(field, prefix.trim(), resolvePageSize(size)).stream()
+                .map(completion -> new FacetCountDTO(completion.value(), completion.count()))
+                .collect(Collectors.toList());
+    }
+
+    @Override
+    public List<ListingSearchResultDTO> searchListings(String query, Integer size) {
+        validateSearchQuery(query);
+        int limit = resolvePageSize(size);
+
         try {
-            List<Listing> listings = listingRepository.findByFilter(
-                    filterDTO.getCategoryId(),
-                    filterDTO.getBrand(),
-                    filterDTO.getModel(),
-                    filterDTO.getMinYear(),
-                    filterDTO.getMaxYear(),
-                    filterDTO.getMinPrice(),
-                    filterDTO.getMaxPrice(),
-                    filterDTO.getLocation(),
-                    filterDTO.getSearchText()
-            );
-
-            log.info("Retrieved {} listings with filters: {}", listings.size(), filterDTO);
-            return listings.stream().map(this::mapToDTO).collect(Collectors.toList());
+            List<ListingSearchHit> hits = listingRepository.search(query.trim(), limit);
+            log.info("Search for '{}' returned {} listings", query, hits.size());
+            return hits.stream().map(this::mapToSearchResult).collect(Collectors.toList());
         } catch (Exception ex) {
-            log.error("Exception occurred while filtering listings: {}", ex.getMessage());
-            throw new InternalServerException("Error occurred while filtering listings: " + ex.getMessage());
+            log.error("Exception occurred while searching listings: {}", ex.getMessage());
+            throw new InternalServerException("Error occurred while searching listings: " + ex.getMessage());
+        }
+    }
+
+    @Override
+    public List<ListingSearchResultDTO> instantSearchListings(String query, Integer size) {
+        validateSearchQuery(query);
+        if (!listingSearchIndex.isReady()) {
+            log.info("Listing search index is still loading, falling back to database search");
+            return searchListings(query, size);
         }
+
+        List<SearchHit> hits = listingSearchIndex.search(query, resolvePageSize(size));
+        Map<Long, Listing> listings = listingRepository.findAllById(hits.stream().map(SearchHit::docId).toList())
+                .stream()
+                .collect(Collectors.toMap(Listing::getListingId, Function.identity()));
+
+        log.info("Instant search for '{}' returned {} listings", query, hits.size());
+        return hits.stream()
+                .filter(hit -> listings.containsKey(hit.docId()))
+                .map(hit -> mapToSearchResult(listings.get(hit.docId()), hit.score()))
+                .collect(Collectors.toList());
     }
 
     @Override
@@ -241,17 +550,21 @@ public class ListingServiceImpl implements ListingService {
             throw new PhotoUploadException("Invalid photo URL: Must be HTTP/HTTPS and end with .png, .jpg, .jpeg, or .gif");
         }
 
+        ListingDTO previous = listingDtoConverter.toListingDTO(listing);
         try {
-            List<String> photos = listing.getPhotos();
+            List<String> photos = new ArrayList<>(listing.getPhotos());
             if (photos.contains(photoUrl)) {
                 log.warn("Photo URL already exists in listing {}: {}", listingId, photoUrl);
                 throw new PhotoUploadException("Photo URL already exists: " + photoUrl);
             }
             photos.add(photoUrl);
             listing.setPhotos(photos);
-            Listing updatedListing = listingRepository.save(listing);
+            listing.setUpdatedAt(dateTimeFactory.now());
+            Listing updatedListing = listingRepository.saveAndFlush(listing);
+            ListingDTO updated = listingDtoConverter.toListingDTO(updatedListing);
+            eventPublisher.publishEvent(new ListingChangedEvent(listingId, previous, updated));
             log.info("Photo URL added to listing {} for user: {}", listingId, userId);
-            return listingDtoConverter.toListingDTO(updatedListing);
+            return updated;
         } catch (Exception ex) {
             log.error("Exception occurred while adding photo URL to listing {}: {}", listingId, ex.getMessage());
             throw new PhotoUploadException("Error occurred while adding photo URL: " + ex.getMessage());
@@ -278,16 +591,20 @@ public class ListingServiceImpl implements ListingService {
             throw new ListingNotFoundException("User is not authorized to delete photo from this listing");
         }
 
+        ListingDTO previous = listingDtoConverter.toListingDTO(listing);
         try {
-            List<String> photos = listing.getPhotos();
+            List<String> photos = new ArrayList<>(listing.getPhotos());
             if (!photos.remove(photoUrl)) {
                 log.warn("Photo URL not found in listing {}: {}", listingId, photoUrl);
                 throw new PhotoNotFoundException("Photo URL not found: " + photoUrl);
             }
             listing.setPhotos(photos);
-            Listing updatedListing = listingRepository.save(listing);
+            listing.setUpdatedAt(dateTimeFactory.now());
+            Listing updatedListing = listingRepository.saveAndFlush(listing);
+            ListingDTO updated = listingDtoConverter.toListingDTO(updatedListing);
+            eventPublisher.publishEvent(new ListingChangedEvent(listingId, previous, updated));
             log.info("Photo URL deleted from listing {} for user: {}", listingId, userId);
-            return listingDtoConverter.toListingDTO(updatedListing);
+            return updated;
         } catch (Exception ex) {
             log.error("Exception occurred while deleting photo URL from listing {}: {}", listingId, ex.getMessage());
             throw new PhotoNotFoundException("Error occurred while deleting photo URL: " + ex.getMessage());
@@ -306,6 +623,94 @@ public class ListingServiceImpl implements ListingService {
         return listing.getPhotos();
     }
 
+    @Override
+    @Transactional(readOnly = true)
+    public long exportListings(OutputStream outputStream) throws IOException {
+        ObjectWriter writer = objectMapper.writerFor(ListingDTO.class)
+                .without(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+        BufferedOutputStream out = new BufferedOutputStream(outputStream, 64 * 1024);
+        long count = 0;
+
+        try (Stream<Listing> listings = listingRepository.streamAll()) {
+            Iterator<Listing> iterator = listings.iterator();
+            while (iterator.hasNext()) {
+                Listing listing = iterator.next();
+                ListingDTO dto = mapToDTO(listing);
+                dto.setCreatedAt(listing.getCreatedAt());
+                writer.writeValue(out, dto);
+                out.write('\n');
+
+                if (++count % exportClearInterval == 0) {
+                    entityManager.clear();
+                    out.flush();
+                }
+            }
+        }
+
+        out.flush();
+        log.info("Exported {} listings", count);
+        return count;
+    }
+
+    /**
+     * Copies the filter with text criteria trimmed and blank ones cleared, so requests that
+     * differ only in whitespace share one query.
+     */
+    private ListingFilterDTO normalize(ListingFilterDTO filterDTO) {
+        ListingFilterDTO filter = new ListingFilterDTO();
+        filter.setCategoryId(filterDTO.getCategoryId());
+        filter.setBrand(trimToNull(filterDTO.getBrand()));
+        filter.setModel(trimToNull(filterDTO.getModel()));
+        filter.setMinYear(filterDTO.getMinYear());
+        filter.setMaxYear(filterDTO.getMaxYear());
+        filter.setMinPrice(filterDTO.getMinPrice());
+        filter.setMaxPrice(filterDTO.getMaxPrice());
+        filter.setLocation(trimToNull(filterDTO.getLocation()));
+        filter.setSearchText(trimToNull(filterDTO.getSearchText()));
+        return filter;
+    }
+
+    private static String trimToNull(String value) {
+        return value == null || value.isBlank() ? null : value.trim();
+    }
+
+    private void validateSearchQuery(String query) {
+        if (query == null || query.isBlank()) {
+            throw new IllegalArgumentException("Search query cannot be blank");
+        }
+        if (query.length() > MAX_SEARCH_QUERY_LENGTH) {
+            throw new IllegalArgumentException("Search query should not exceed " + MAX_SEARCH_QUERY_LENGTH + " characters");
+        }
+    }
+
+    private ListingCursor decodeCursor(String cursor, ListingSort sort) {
+        if (cursor == null || cursor.isBlank()) {
+            return null;
+        }
+        return ListingCursor.decode(cursor, sort);
+    }
+
+    private int resolvePageSize(Integer size) {
+        if (size == null) {
+            return defaultPageSize;
+        }
+        if (size < 1) {
+            throw new IllegalArgumentException("Page size must be positive");
+        }
+        return Math.min(size, maxPageSize);
+    }
+
+    /**
+     * Turns a result fetched with one extra row into a page. The extra row only signals
+     * that another page exists; the cursor points at the last row actually returned.
+     */
+    private <T> ListingPageDTO<T> toPage(List<T> listings, int pageSize, Function<T, ListingCursor> cursorOf) {
+        boolean hasNext = listings.size() > pageSize;
+        List<T> page = hasNext ? new ArrayList<>(listings.subList(0, pageSize)) : listings;
+        String nextCursor = hasNext ? cursorOf.apply(page.get(page.size() - 1)).encode() : null;
+        return new ListingPageDTO<>(page, nextCursor);
+    }
+
     private ListingDTO mapToDTO(Listing listing) {
         ListingDTO dto = new ListingDTO();
         dto.setListingId(listing.getListingId());
@@ -320,6 +725,40 @@ public class ListingServiceImpl implements ListingService {
         dto.setMileage(listing.getMileage());
         dto.setLocation(listing.getLocation());
         dto.setPhotos(listing.getPhotos());
+        dto.setVersion(listing.getVersion());
+        dto.setUpdatedAt(listing.getUpdatedAt());
+        return dto;
+    }
+
+    private ListingSearchResultDTO mapToSearchResult(ListingSearchHit hit) {
+        ListingSearchResultDTO dto = new ListingSearchResultDTO();
+        dto.setListingId(hit.getListingId());
+        dto.setCategoryId(hit.getCategoryId());
+        dto.setTitle(hit.getTitle());
+        dto.setPrice(hit.getPrice());
+        dto.setBrand(hit.getBrand());
+        dto.setModel(hit.getModel());
+        dto.setYear(hit.getYear());
+        dto.setMileage(hit.getMileage());
+        dto.setLocation(hit.getLocation());
+        dto.setRank(hit.getRank());
+        dto.setTitleHighlight(SearchHighlights.toHtml(hit.getTitleHighlight()));
+        dto.setDescriptionSnippet(SearchHighlights.toHtml(hit.getDescriptionSnippet()));
+        return dto;
+    }
+
+    private ListingSearchResultDTO mapToSearchResult(Listing listing, double score) {
+        ListingSearchResultDTO dto = new ListingSearchResultDTO();
+        dto.setListingId(listing.getListingId());
+        dto.setCategoryId(listing.getCategory().getCategoryId());
+        dto.setTitle(listing.getTitle());
+        dto.setPrice(listing.getPrice());
+        dto.setBrand(listing.getBrand());
+        dto.setModel(listing.getModel());
+        dto.setYear(listing.getYear());
+        dto.setMileage(listing.getMileage());
+        dto.setLocation(listing.getLocation());
+        dto.setRank(score);
         return dto;
     }
 }
\ No newline at end of file
@@ -1,16 +1,26 @@
 package com.yasar.listigo.demo.service.impl;
 
+import com.yasar.listigo.demo.cache.BlockedUserCache;
+import com.yasar.listigo.demo.dto.ConversationDTO;
+import com.yasar.listigo.demo.dto.ConversationPageDTO;
+import com.yasar.listigo.demo.dto.MessageCursor;
 import com.yasar.listigo.demo.dto.MessageDTO;
+import com.yasar.listigo.demo.dto.MessagePageDTO;
+import com.yasar.listigo.demo.dto.UnreadCountDTO;
 import com.yasar.listigo.demo.entity.Listing;
 import com.yasar.listigo.demo.entity.Message;
 import com.yasar.listigo.demo.entity.UserMetadata;
+import com.yasar.listigo.demo.event.ConversationDeletedEvent;
+import com.yasar.listigo.demo.event.MessageSentEvent;
+import com.yasar.listigo.demo.event.MessagesReadEvent;
 import com.yasar.listigo.demo.exception.ListingNotFoundException;
 import com.yasar.listigo.demo.exception.MessageNotDeletedException;
 import com.yasar.listigo.demo.exception.MessageNotFoundException;
 import com.yasar.listigo.demo.exception.MessageNotSentException;
 import com.yasar.listigo.demo.exception.UserBlockedException;
 import com.yasar.listigo.demo.exception.UserNotFoundException;
-import com.yasar.listigo.demo.repository.BlockedUserRepository;
+import com.yasar.listigo.demo.realtime.UnreadMessageCounter;
+import com.yasar.listigo.demo.repository.ConversationRepository;
 import com.yasar.listigo.demo.repository.ListingRepository;
 import com.yasar.listigo.demo.repository.MessageRepository;
 import com.yasar.listigo.demo.repository.UserRepository;
@@ -18,9 +28,13 @@ import com.yasar.listigo.demo.service.MessageService;
 import com.yasar.listigo.demo.util.DateTimeFactory;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Limit;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.util.ArrayList;
 import java.util.List;
 import java.util.UUID;
 import java.util.stream.Collectors;
@@ -30,11 +44,22 @@ import java.util.stream.Collectors;
 @RequiredArgsConstructor
 public class MessageServiceImpl implements MessageService {
 
+    private static final int MAX_PREVIEW_LENGTH = 200;
+
     private final MessageRepository messageRepository;
+    private final ConversationRepository conversationRepository;
     private final UserRepository userRepository;
     private final ListingRepository listingRepository;
     private final DateTimeFactory dateTimeFactory;
-    private final BlockedUserRepository blockedUserRepository;
+    private final BlockedUserCache blockedUserCache;
+    private final ApplicationEventPublisher eventPublisher;
+    private final UnreadMessageCounter unreadMessageCounter;
+
+    @Value("${message.page.default-size}")
+    private int defaultPageSize;
+
+    @Value("${message.page.max-size}")
+    private int maxPageSize;
 
     @Override
     @Transactional
@@ -73,7 +98,7 @@ public class MessageServiceImpl implements MessageService {
             throw new IllegalArgumentException("Cannot send message to yourself");
         }
 
-        if (blockedUserRepository.existsByBlockerIdAndBlockedId(receiverId, senderId)) {
+        if (blockedUserCache.isBlocked(receiverId, senderId)) {
             log.warn("Sender {} is blocked by receiver {} for listing {}", senderId, receiverId, listingId);
             throw new UserBlockedException("You are blocked by the receiver");
         }
@@ -88,8 +113,12 @@ public class MessageServiceImpl implements MessageService {
             message.setRead(false);
 
             Message savedMessage = messageRepository.save(message);
+            conversationRepository.upsertMessage(listingId, senderId, receiverId, savedMessage.getMessageId(),
+                    preview(savedMessage.getContent()), savedMessage.getSentAt());
+            MessageDTO sent = mapToDTO(savedMessage);
+            eventPublisher.publishEvent(new MessageSentEvent(sent));
             log.info("Message sent from {} to {} for listing {}", senderId, receiverId, listingId);
-            return mapToDTO(savedMessage);
+            return sent;
         } catch (Exception ex) {
             log.error("Exception occurred while sending message for listing {}: {}", listingId, ex.getMessage());
             throw new MessageNotSentException("Error occurred while sending message: " + ex.getMessage());
@@ -97,35 +126,80 @@ public class MessageServiceImpl implements MessageService {
     }
 
     @Override
-    public List<MessageDTO> getMessagesByListingId(UUID userId, Long listingId) {
+    @Transactional
+    public MessagePageDTO getMessagesByListingId(UUID userId, Long listingId, String cursor, Integer size) {
+        MessageCursor after = cursor == null || cursor.isBlank() ? null : MessageCursor.decode(cursor);
+        int pageSize = resolvePageSize(size);
+        Limit limit = Limit.of(pageSize + 1);
+
+        List<MessageDTO> messages = after == null
+                ? messageRepository.findDTOsByListingIdAndSenderIdOrReceiverId(listingId, userId, limit)
+                : messageRepository.findDTOsByListingIdAndSenderIdOrReceiverIdAfter(listingId, userId,
+                        after.getSentAt(), after.getMessageId(), limit);
+        if (messages.isEmpty() && after == null) {
+            throw noMessagesException(userId, listingId);
+        }
+
+        boolean hasMore = messages.size() > pageSize;
+        List<MessageDTO> page = hasMore ? new ArrayList<>(messages.subList(0, pageSize)) : messages;
+
+        String receiverId = userId.toString();
+        List<MessageDTO> unread = page.stream()
+                .filter(m -> m.getReceiverId().equals(receiverId) && !m.isRead())
+                .collect(Collectors.toList());
+        if (!unread.isEmpty()) {
+            MessageDTO last = page.get(page.size() - 1);
+            int marked = messageRepository.markReadUpTo(listingId, userId, last.getSentAt(), last.getMessageId());
+            if (marked > 0) {
+                conversationRepository.refreshUnreadCounts(listingId, userId);
+                eventPublisher.publishEvent(new MessagesReadEvent(userId, marked));
+            }
+            unread.forEach(m -> m.setRead(true));
+            log.debug("Marked {} messages read for listing {} and user {}", marked, listingId, userId);
+        }
+
+        String nextCursor = hasMore ? MessageCursor.of(page.get(page.size() - 1)).encode() : null;
+        log.info("Retrieved {} messages for listing {} and user {}", page.size(), listingId, userId);
+        return new MessagePageDTO(page, nextCursor);
+    }
+
+    /**
+     * Explains an empty first page. Only this path looks the listing up; a conversation with
+     * messages is authorized by the page query itself.
+     */
+    private RuntimeException noMessagesException(UUID userId, Long listingId) {
         Listing listing = listingRepository.findById(listingId)
                 .orElseThrow(() -> {
                     log.warn("Listing not found with ID: {}", listingId);
                     return new ListingNotFoundException("Listing not found with ID: " + listingId);
                 });
 
-        if (!listing.getUser().getUserId().equals(userId) &&
-                messageRepository.findByListingIdAndSenderIdOrReceiverId(listingId, userId).stream()
-                        .noneMatch(m -> m.getSender().getUserId().equals(userId) || m.getReceiver().getUserId().equals(userId))) {
+        if (!listing.getUser().getUserId().equals(userId)) {
             log.warn("User {} is not authorized to view messages for listing {}", userId, listingId);
-            throw new ListingNotFoundException("User is not authorized to view messages for this listing");
+            return new ListingNotFoundException("User is not authorized to view messages for this listing");
         }
 
-        List<Message> messages = messageRepository.findByListingIdAndSenderIdOrReceiverId(listingId, userId);
-        if (messages.isEmpty()) {
-            log.warn("No messages found for listing {} and user {}", listingId, userId);
-            throw new MessageNotFoundException("No messages found for listing: " + listingId);
-        }
+        log.warn("No messages found for listing {} and user {}", listingId, userId);
+        return new MessageNotFoundException("No messages found for listing: " + listingId);
+    }
 
-        messages.stream()
-                .filter(m -> m.getReceiver().getUserId().equals(userId) && !m.isRead())
-                .forEach(m -> {
-                    m.setRead(true);
-                    messageRepository.save(m);
-                });
+    @Override
+    public ConversationPageDTO getInbox(UUID userId, String cursor, Integer size) {
+        MessageCursor after = cursor == null || cursor.isBlank() ? null : MessageCursor.decode(cursor);
+        int pageSize = resolvePageSize(size);
+
+        List<ConversationDTO> conversations = conversationRepository.findInboxPage(userId, after, pageSize + 1);
+        boolean hasMore = conversations.size() > pageSize;
+        List<ConversationDTO> page = hasMore ? conversations.subList(0, pageSize) : conversations;
+        String nextCursor = hasMore ? MessageCursor.of(page.get(page.size() - 1)).encode() : null;
 
-        log.info("Retrieved {} messages for listing {} and user {}", messages.size(), listingId, userId);
-        return messages.stream().map(this::mapToDTO).collect(Collectors.toList());
+        log.info("Retrieved {} conversations for user {}", page.size(), userId);
+        return new ConversationPageDTO(new ArrayList<>(page), nextCursor);
+    }
+
+    @Override
+    public UnreadCountDTO getUnreadCount(UUID userId) {
+        return new UnreadCountDTO(unreadMessageCounter.getUnreadCount(userId));
     }
 
     @Override
@@ -138,14 +212,15 @@ public class MessageServiceImpl implements MessageService {
                 });
 
         if (!listing.getUser().getUserId().equals(userId) &&
-                messageRepository.findByListingIdAndSenderIdOrReceiverId(listingId, userId).stream()
-                        .noneMatch(m -> m.getSender().getUserId().equals(userId) || m.getReceiver().getUserId().equals(userId))) {
+                !messageRepository.existsByListingIdAndSenderIdOrReceiverId(listingId, userId)) {
             log.warn("User {} is not authorized to delete conversation for listing {}", userId, listingId);
             throw new ListingNotFoundException("User is not authorized to delete conversation for this listing");
         }
 
         try {
             messageRepository.deleteByListingIdAndSenderIdOrReceiverId(listingId, userId);
+            conversationRepository.deleteByListingIdAndUserId(listingId, userId);
+            eventPublisher.publishEvent(new ConversationDeletedEvent(listingId, userId));
             log.info("Conversation deleted for listing {} and user {}", listingId, userId);
         } catch (Exception ex) {
             log.error("Exception occurred while deleting conversation for listing {}: {}", listingId, ex.getMessage());
@@ -153,6 +228,20 @@ public class MessageServiceImpl implements MessageService {
         }
     }
 
+    private int resolvePageSize(Integer size) {
+        if (size == null) {
+            return defaultPageSize;
+        }
+        if (size < 1) {
+            throw new IllegalArgumentException("Page size must be positive");
+        }
+        return Math.min(size, maxPageSize);
+    }
+
+    private static String preview(String content) {
+        return content.length() <= MAX_PREVIEW_LENGTH ? content : content.substring(0, MAX_PREVIEW_LENGTH);
+    }
+
     private MessageDTO mapToDTO(Message message) {
         MessageDTO dto = new MessageDTO();
         dto.setMessageId(message.getMessageId());
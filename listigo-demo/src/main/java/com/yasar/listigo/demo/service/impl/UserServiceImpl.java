@@ -1,10 +1,12 @@
 package com.yasar.listigo.demo.service.impl;
 
+import com.yasar.listigo.demo.converter.UserDtoConverter;
 import com.yasar.listigo.demo.dto.AuthResponse;
 import com.yasar.listigo.demo.dto.BlockUserDTO;
 import com.yasar.listigo.demo.dto.UserDto;
 import com.yasar.listigo.demo.entity.BlockedUser;
 import com.yasar.listigo.demo.entity.UserMetadata;
+import com.yasar.listigo.demo.event.UserBlockChangedEvent;
 import com.yasar.listigo.demo.exception.InternalServerException;
 import com.yasar.listigo.demo.exception.InvalidPasswordException;
 import com.yasar.listigo.demo.exception.JwtTokenExpiredException;
@@ -17,15 +19,22 @@ import com.yasar.listigo.demo.exception.UserNotRegisteredException;
 import com.yasar.listigo.demo.exception.UserProfileNotUpdatedException;
 import com.yasar.listigo.demo.repository.BlockedUserRepository;
 import com.yasar.listigo.demo.repository.UserRepository;
+import com.yasar.listigo.demo.security.LoginAttemptThrottle;
+import com.yasar.listigo.demo.security.PasswordHasher;
+import com.yasar.listigo.demo.security.RefreshTokenStore;
+import com.yasar.listigo.demo.security.TokenDenylist;
+import com.yasar.listigo.demo.security.VerifiedToken;
 import com.yasar.listigo.demo.service.UserService;
 import com.yasar.listigo.demo.util.DateTimeFactory;
 import com.yasar.listigo.demo.util.JwtUtil;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.security.core.authority.SimpleGrantedAuthority;
-import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import java.time.Instant;
 import java.util.List;
@@ -38,59 +47,91 @@ public class UserServiceImpl implements UserService {
 
     private final UserRepository userRepository;
     private final DateTimeFactory dateTimeFactory;
-    private final PasswordEncoder passwordEncoder;
+    private final PasswordHasher passwordHasher;
+    private final LoginAttemptThrottle loginAttemptThrottle;
+    private final RefreshTokenStore refreshTokenStore;
+    private final TokenDenylist tokenDenylist;
     private final JwtUtil jwtUtil;
+    private final UserDtoConverter userDtoConverter;
     private final BlockedUserRepository blockedUserRepository;
+    private final ApplicationEventPublisher eventPublisher;
+    private final PlatformTransactionManager transactionManager;
 
+    /**
+     * Not transactional as a whole: the email check and the insert run in separate short
+     * transactions with the hash in between. With open-in-view disabled, the connection used
+     * by the email check is returned to the pool before hashing starts.
+     */
     @Override
-    @Transactional
     public UserMetadata handleRegisterUser(UserDto userDto) {
         if (userRepository.findByEmail(userDto.getEmail()).isPresent()) {
             log.warn("Attempted to register with existing email: {}", userDto.getEmail());
             throw new UserAlreadyExistsException("Email already exists: " + userDto.getEmail());
         }
 
+        String encodedPassword = passwordHasher.encode(userDto.getPassword());
         try {
-            UserMetadata user = new UserMetadata();
-            user.setEmail(userDto.getEmail());
-            user.setPassword(passwordEncoder.encode(userDto.getPassword()));
-            user.setName(userDto.getName());
-            user.setPhone(userDto.getPhone());
-            user.setCreatedAt(dateTimeFactory.now());
+            return new TransactionTemplate(transactionManager).execute(status -> {
+                UserMetadata user = new UserMetadata();
+                user.setEmail(userDto.getEmail());
+                user.setPassword(encodedPassword);
+                user.setName(userDto.getName());
+                user.setPhone(userDto.getPhone());
+                user.setCreatedAt(dateTimeFactory.now());
 
-            UserMetadata savedUser = userRepository.save(user);
-            userRepository.saveUserRole(savedUser.getUserId(), "ROLE_USER");
-            updateRefreshToken(savedUser);
-            log.info("User registered with ID: {}", savedUser.getUserId());
-            return savedUser;
+                UserMetadata savedUser = userRepository.save(user);
+                userRepository.saveUserRole(savedUser.getUserId(), "ROLE_USER");
+                log.info("User registered with ID: {}", savedUser.getUserId());
+                return savedUser;
+            });
         } catch (Exception ex) {
             log.error("Exception occurred while registering user: {}", ex.getMessage());
             throw new UserNotRegisteredException("Error occurred while registering user: " + ex.getMessage());
         }
     }
 
+    /**
+     * Not transactional as a whole: the password is verified, and rehashed if needed, after
+     * the lookup's transaction has ended and before the token update starts its own. With
+     * open-in-view disabled, no connection is held while hashing.
+     */
     @Override
-    @Transactional
-    public AuthResponse handleLoginUser(String email, String password) {
+    public AuthResponse handleLoginUser(String email, String password, String clientAddress) {
+        loginAttemptThrottle.checkAllowed(email, clientAddress);
+
         UserMetadata user = userRepository.findByEmail(email)
                 .orElseThrow(() -> {
                     log.warn("User not found with email: {}", email);
+                    loginAttemptThrottle.recordFailure(email, clientAddress);
                     return new UserNotFoundException("User not found with email: " + email);
                 });
 
-        if (!passwordEncoder.matches(password, user.getPassword())) {
+        if (!passwordHasher.matches(password, user.getPassword())) {
             log.warn("Invalid credentials for email: {}", email);
+            loginAttemptThrottle.recordFailure(email, clientAddress);
             throw new UserNotFoundException("Invalid credentials");
         }
 
+        // Moves the stored hash to the current cost factor while the raw password is at hand
+        String rehashedPassword = passwordHasher.needsRehash(user.getPassword())
+                ? passwordHasher.encode(password)
+                : null;
+
         try {
-            List<SimpleGrantedAuthority> authorities = userRepository.findRolesByUserId(user.getUserId()).stream()
-                    .map(SimpleGrantedAuthority::new)
-                    .toList();
-            String accessToken = jwtUtil.generateToken(user.getUserId(), authorities);
-            updateRefreshToken(user);
-            log.info("User logged in successfully with email: {}", email);
-            return new AuthResponse(accessToken, user.getRefreshToken(), user);
+            return new TransactionTemplate(transactionManager).execute(status -> {
+                if (rehashedPassword != null) {
+                    user.setPassword(rehashedPassword);
+                    userRepository.save(user);
+                    log.info("Rehashed password of user ID: {}", user.getUserId());
+                }
+                List<SimpleGrantedAuthority> authorities = userRepository.findRolesByUserId(user.getUserId()).stream()
+                        .map(SimpleGrantedAuthority::new)
+                        .toList();
+                String accessToken = jwtUtil.generateToken(user.getUserId(), authorities);
+                String refreshToken = refreshTokenStore.issue(user.getUserId());
+                log.info("User logged in successfully with email: {}", email);
+                return new AuthResponse(accessToken, refreshToken, userDtoConverter.toUserResponse(user));
+            });
         } catch (JwtTokenGenerationException ex) {
             log.error("Exception occurred while generating tokens for user: {}", email, ex);
             throw ex;
@@ -130,35 +171,28 @@ public class UserServiceImpl implements UserService {
         }
     }
 
+    /**
+     * Not transactional: the token store commits the rotation, or the revocation of a
+     * reused token's family, on its own before any exception reaches the caller.
+     */
     @Override
-    @Transactional
     public AuthResponse handleRefreshToken(String refreshToken) {
         try {
-            UUID userId = jwtUtil.extractUserId(refreshToken);
+            RefreshTokenStore.Rotation rotation = refreshTokenStore.rotate(refreshToken);
+            UUID userId = rotation.userId();
             UserMetadata user = userRepository.findById(userId)
                     .orElseThrow(() -> {
                         log.warn("User not found with ID: {}", userId);
                         return new UserNotFoundException("User not found with ID: " + userId);
                     });
 
-            if (!refreshToken.equals(user.getRefreshToken())) {
-                log.warn("Provided refresh token does not match stored token for user ID: {}", userId);
-                throw new JwtTokenInvalidException("Invalid refresh token");
-            }
-
-            if (user.getRefreshTokenExpiration() == null || user.getRefreshTokenExpiration().isBefore(Instant.now())) {
-                log.warn("Refresh token expired for user ID: {}", userId);
-                throw new JwtTokenExpiredException("Refresh token has expired");
-            }
-
             List<SimpleGrantedAuthority> authorities = userRepository.findRolesByUserId(userId).stream()
                     .map(SimpleGrantedAuthority::new)
                     .toList();
             String newAccessToken = jwtUtil.generateToken(userId, authorities);
-            updateRefreshToken(user);
 
             log.info("Tokens refreshed successfully for user ID: {}", userId);
-            return new AuthResponse(newAccessToken, user.getRefreshToken(), user);
+            return new AuthResponse(newAccessToken, rotation.token(), userDtoConverter.toUserResponse(user));
         } catch (JwtTokenExpiredException | JwtTokenInvalidException ex) {
             log.error("Invalid or expired refresh token: {}", ex.getMessage());
             throw ex;
@@ -168,6 +202,22 @@ public class UserServiceImpl implements UserService {
         }
     }
 
+    @Override
+    public void handleLogout(VerifiedToken accessToken, String refreshToken) {
+        tokenDenylist.revokeToken(accessToken);
+        if (refreshToken != null && !refreshToken.isBlank()) {
+            refreshTokenStore.revoke(refreshToken, accessToken.userId());
+        }
+        log.info("User logged out with ID: {}", accessToken.userId());
+    }
+
+    @Override
+    public void handleLogoutAll(UUID userId) {
+        tokenDenylist.revokeAllIssuedBefore(userId, Instant.now());
+        refreshTokenStore.revokeAll(userId);
+        log.info("User logged out of all devices with ID: {}", userId);
+    }
+
     @Override
     @Transactional
     public void blockUser(UUID blockerId, BlockUserDTO blockUserDTO) {
@@ -199,6 +249,7 @@ public class UserServiceImpl implements UserService {
             blockedUser.setBlockerId(blockerId);
             blockedUser.setBlockedId(blockedId);
             blockedUserRepository.save(blockedUser);
+            eventPublisher.publishEvent(new UserBlockChangedEvent(blockerId, blockedId, true));
             log.info("User {} blocked user {}", blockerId, blockedId);
         } catch (Exception ex) {
             log.error("Exception occurred while blocking user {}: {}", blockedId, ex.getMessage());
@@ -206,8 +257,11 @@ public class UserServiceImpl implements UserService {
         }
     }
 
+    /**
+     * Not transactional as a whole: the lookup and the save each run in their own short
+     * transaction. With open-in-view disabled, no connection is held during either hash.
+     */
     @Override
-    @Transactional
     public void handleChangePassword(UUID userId, String oldPassword, String newPassword) {
         UserMetadata user = userRepository.findById(userId)
                 .orElseThrow(() -> {
@@ -215,13 +269,14 @@ public class UserServiceImpl implements UserService {
                     return new UserNotFoundException("User not found with ID: " + userId);
                 });
 
-        if (!passwordEncoder.matches(oldPassword, user.getPassword())) {
+        if (!passwordHasher.matches(oldPassword, user.getPassword())) {
             log.warn("Invalid old password for user ID: {}", userId);
             throw new InvalidPasswordException("Invalid old password");
         }
 
+        String encodedPassword = passwordHasher.encode(newPassword);
         try {
-            user.setPassword(passwordEncoder.encode(newPassword));
+            user.setPassword(encodedPassword);
             userRepository.save(user);
             log.info("Password changed successfully for user ID: {}", userId);
         } catch (Exception ex) {
@@ -229,13 +284,4 @@ public class UserServiceImpl implements UserService {
             throw new RuntimeException("Error occurred while changing password: " + ex.getMessage());
         }
     }
-
-    private void updateRefreshToken(UserMetadata user) {
-        String newRefreshToken = jwtUtil.generateToken(user.getUserId(), jwtUtil.getRefreshExpiration());
-        Instant expiration = Instant.now().plusMillis(jwtUtil.getRefreshExpiration());
-
-        user.setRefreshToken(newRefreshToken);
-        user.setRefreshTokenExpiration(expiration);
-        userRepository.save(user);
-    }
-}
\ No newline at end of file
+}
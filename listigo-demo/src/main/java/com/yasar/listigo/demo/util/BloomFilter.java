@@ -0,0 +1,74 @@
+package com.yasar.listigo.demo.util;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Thread-safe Bloom filter over 64-bit keys. {@link #mightContain} never returns false for a
+ * key that was added, and returns true for a key that was not with roughly the configured
+ * probability as long as no more than the expected number of keys were added. Keys cannot
+ * be removed; callers rebuild the filter instead.
+ * <p>
+ * Keys should already be well mixed, for example with {@link #mix}. The bit positions are
+ * derived from the two halves of the key by double hashing.
+ */
+public final class BloomFilter {
+
+    private final AtomicLongArray bits;
+    private final long bitCount;
+    private final int hashCount;
+
+    /**
+     * @param expectedInsertions number of keys the filter is sized for, at least 1
+     * @param falsePositiveRate  target false positive rate at that size, between 0 and 1
+     */
+    public BloomFilter(long expectedInsertions, double falsePositiveRate) {
+        long n = Math.max(expectedInsertions, 1);
+        long m = (long) Math.ceil(-n * Math.log(falsePositiveRate) / (Math.log(2) * Math.log(2)));
+        int words = Math.toIntExact(Math.max((m + 63) / 64, 1));
+        this.bits = new AtomicLongArray(words);
+        this.bitCount = (long) words * 64;
+        this.hashCount = Math.max(1, (int) Math.round((double) bitCount / n * Math.log(2)));
+    }
+
+    public void add(long key) {
+        int h1 = (int) key;
+        int h2 = (int) (key >>> 32);
+        for (int i = 1; i <= hashCount; i++) {
+            long bit = position(h1, h2, i);
+            long mask = 1L << bit;
+            int word = (int) (bit >>> 6);
+            if ((bits.get(word) & mask) == 0) {
+                bits.getAndAccumulate(word, mask, (current, set) -> current | set);
+            }
+        }
+    }
+
+    public boolean mightContain(long key) {
+        int h1 = (int) key;
+        int h2 = (int) (key >>> 32);
+        for (int i = 1; i <= hashCount; i++) {
+            long bit = position(h1, h2, i);
+            if ((bits.get((int) (bit >>> 6)) & (1L << bit)) == 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Finalization step of MurmurHash3, spreading every input bit over the whole result.
+     */
+    public static long mix(long value) {
+        long mixed = value ^ (value >>> 33);
+        mixed *= 0xff51afd7ed558ccdL;
+        mixed ^= mixed >>> 33;
+        mixed *= 0xc4ceb9fe1a85ec53L;
+        mixed ^= mixed >>> 33;
+        return mixed;
+    }
+
+    private long position(int h1, int h2, int index) {
+        long combined = h1 + (long) index * h2;
+        return (combined < 0 ? ~combined : combined) % bitCount;
+    }
+}
@@ -1,101 +1,171 @@
 package com.yasar.listigo.demo.util;
 
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
 import com.yasar.listigo.demo.exception.JwtTokenExpiredException;
 import com.yasar.listigo.demo.exception.JwtTokenGenerationException;
 import com.yasar.listigo.demo.exception.JwtTokenInvalidException;
+import com.yasar.listigo.demo.security.VerifiedToken;
 import io.jsonwebtoken.Claims;
 import io.jsonwebtoken.ExpiredJwtException;
+import io.jsonwebtoken.JwtException;
+import io.jsonwebtoken.JwtParser;
 import io.jsonwebtoken.Jwts;
-import io.jsonwebtoken.MalformedJwtException;
 import io.jsonwebtoken.SignatureAlgorithm;
-import io.jsonwebtoken.SignatureException;
-import io.jsonwebtoken.UnsupportedJwtException;
-import lombok.Getter;
+import io.jsonwebtoken.impl.TextCodec;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import jakarta.annotation.PostConstruct;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.stereotype.Component;
 
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.charset.StandardCharsets;
+import java.security.Key;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.time.Instant;
 import java.util.*;
 import java.util.stream.Collectors;
 
 @Component
 public class JwtUtil {
 
+    /**
+     * Issue time in epoch milliseconds; the standard iat claim only records whole seconds.
+     */
+    private static final String ISSUED_AT_MILLIS_CLAIM = "iat_ms";
+
+    private final MeterRegistry meterRegistry;
+
     @Value("${jwt.secret}")
     private String secret;
 
     @Value("${jwt.expiration}")
     private long expiration;
 
-    @Getter
-    @Value("${jwt.refreshExpiration}")
-    private long refreshExpiration;
+    @Value("${jwt.verified-cache.max-size}")
+    private long verifiedCacheMaxSize;
+
+    private Key signingKey;
+
+    /**
+     * Configured once; the parser holds no per-parse state, so it is shared by all threads.
+     */
+    private JwtParser parser;
+
+    /**
+     * Verified tokens keyed by the SHA-256 digest of the token, so the cache never holds the
+     * bearer tokens themselves. Each entry expires with its token.
+     */
+    private Cache<String, VerifiedToken> verifiedTokens;
+
+    public JwtUtil(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+    }
+
+    @PostConstruct
+    void init() {
+        // The secret is Base64, as the String overloads of signWith and setSigningKey expected
+        signingKey = new SecretKeySpec(TextCodec.BASE64.decode(secret), SignatureAlgorithm.HS512.getJcaName());
+        parser = Jwts.parser().setSigningKey(signingKey);
+        verifiedTokens = Caffeine.newBuilder()
+                .maximumSize(verifiedCacheMaxSize)
+                .expireAfter(new Expiry<String, VerifiedToken>() {
+                    @Override
+                    public long expireAfterCreate(String key, VerifiedToken token, long currentTime) {
+                        return Math.max(0, Duration.between(Instant.now(), token.expiresAt()).toNanos());
+                    }
+
+                    @Override
+                    public long expireAfterUpdate(String key, VerifiedToken token, long currentTime,
+                                                  long currentDuration) {
+                        return currentDuration;
+                    }
+
+                    @Override
+                    public long expireAfterRead(String key, VerifiedToken token, long currentTime,
+                                                long currentDuration) {
+                        return currentDuration;
+                    }
+                })
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, verifiedTokens, "jwt.verified");
+    }
 
     public String generateToken(UUID userId, List<SimpleGrantedAuthority> authorities) {
         Map<String, Object> claims = new HashMap<>();
         claims.put("roles", authorities.stream().map(SimpleGrantedAuthority::getAuthority).collect(Collectors.toList()));
+        long issuedAtMillis = System.currentTimeMillis();
+        claims.put(ISSUED_AT_MILLIS_CLAIM, issuedAtMillis);
         try {
             return Jwts.builder()
                     .setClaims(claims)
+                    .setId(UUID.randomUUID().toString())
                     .setSubject(userId.toString())
-                    .setIssuedAt(new Date())
-                    .setExpiration(new Date(System.currentTimeMillis() + expiration))
-                    .signWith(SignatureAlgorithm.HS512, secret)
+                    .setIssuedAt(new Date(issuedAtMillis))
+                    .setExpiration(new Date(issuedAtMillis + expiration))
+                    .signWith(SignatureAlgorithm.HS512, signingKey)
                     .compact();
         } catch (Exception e) {
             throw new JwtTokenGenerationException("Failed to generate token: " + e.getMessage());
         }
     }
 
-    public String generateToken(UUID userId) {
-        return generateToken(userId, expiration);
-    }
-
-    public String generateToken(UUID userId, long expirationTime) {
-        try {
-            return Jwts.builder()
-                    .setSubject(userId.toString())
-                    .setIssuedAt(new Date())
-                    .setExpiration(new Date(System.currentTimeMillis() + expirationTime))
-                    .signWith(SignatureAlgorithm.HS512, secret)
-                    .compact();
-        } catch (Exception e) {
-            throw new JwtTokenGenerationException("Failed to generate token: " + e.getMessage());
+    /**
+     * Verifies the token and returns its claims. A token seen before is answered from the
+     * cache until it expires, skipping the signature check; only valid tokens are cached.
+     *
+     * @param token compact JWS
+     * @return the verified claims
+     * @throws JwtTokenExpiredException if the token has expired
+     * @throws JwtTokenInvalidException if the token is malformed or its signature does not match
+     */
+    public VerifiedToken verify(String token) {
+        String digest = digest(token);
+        VerifiedToken cached = verifiedTokens.getIfPresent(digest);
+        if (cached != null && cached.expiresAt().isAfter(Instant.now())) {
+            return cached;
         }
-    }
 
-    public List<String> extractUserRoles(String token) {
-        try {
-            Claims claims = Jwts.parser()
-                    .setSigningKey(secret)
-                    .parseClaimsJws(token)
-                    .getBody();
-            return (List<String>) claims.get("roles", List.class);
-        } catch (Exception e) {
-            throw new JwtTokenInvalidException("Invalid token: " + e.getMessage());
+        VerifiedToken verified = parse(token);
+        if (verified.expiresAt() != null) {
+            verifiedTokens.put(digest, verified);
         }
+        return verified;
     }
 
-    public UUID extractUserId(String token) {
+    private VerifiedToken parse(String token) {
         try {
-            Claims claims = Jwts.parser()
-                    .setSigningKey(secret)
-                    .parseClaimsJws(token)
-                    .getBody();
-            return UUID.fromString(claims.getSubject());
-        } catch (Exception e) {
+            Claims claims = parser.parseClaimsJws(token).getBody();
+            @SuppressWarnings("unchecked")
+            List<String> roles = claims.get("roles", List.class);
+            Number issuedAtMillis = claims.get(ISSUED_AT_MILLIS_CLAIM, Number.class);
+            Date issuedAt = claims.getIssuedAt();
+            Date expiresAt = claims.getExpiration();
+            return new VerifiedToken(UUID.fromString(claims.getSubject()),
+                    roles != null ? List.copyOf(roles) : List.of(),
+                    claims.getId() != null ? UUID.fromString(claims.getId()) : null,
+                    issuedAtMillis != null ? Instant.ofEpochMilli(issuedAtMillis.longValue())
+                            : issuedAt != null ? issuedAt.toInstant() : null,
+                    expiresAt != null ? expiresAt.toInstant() : null);
+        } catch (ExpiredJwtException e) {
+            throw new JwtTokenExpiredException("Token has expired: " + e.getMessage());
+        } catch (JwtException | IllegalArgumentException | NullPointerException e) {
             throw new JwtTokenInvalidException("Invalid token: " + e.getMessage());
         }
     }
 
-    public boolean validateToken(String token) {
+    private static String digest(String token) {
         try {
-            Jwts.parser().setSigningKey(secret).parseClaimsJws(token);
-            return true;
-        } catch (ExpiredJwtException e) {
-            throw new JwtTokenExpiredException("Token has expired: " + e.getMessage());
-        } catch (UnsupportedJwtException | MalformedJwtException | SignatureException | IllegalArgumentException e) {
-            throw new JwtTokenInvalidException("Invalid token: " + e.getMessage());
+            byte[] hash = MessageDigest.getInstance("SHA-256").digest(token.getBytes(StandardCharsets.UTF_8));
+            return Base64.getEncoder().encodeToString(hash);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
         }
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,39 @@
+package com.yasar.listigo.demo.util;
+
+import org.springframework.web.util.HtmlUtils;
+
+/**
+ * Turns ts_headline output into safe HTML. The database marks matches with private-use
+ * characters instead of tags, so the user-written text around them can be escaped here
+ * before the {@code <mark>} tags are added.
+ */
+public final class SearchHighlights {
+
+    /**
+     * Marks the start of a match in ts_headline output; a private-use character, absent from real text.
+     */
+    public static final String START = "" + (char) 0xE000;
+
+    /**
+     * Marks the end of a match in ts_headline output.
+     */
+    public static final String STOP = "" + (char) 0xE001;
+
+    private SearchHighlights() {
+    }
+
+    /**
+     * Escapes the text and replaces the match markers with {@code <mark>} tags.
+     *
+     * @param headline ts_headline output using {@link #START} and {@link #STOP}, may be null
+     * @return HTML with the matches wrapped in mark elements, or null if the input is null
+     */
+    public static String toHtml(String headline) {
+        if (headline == null) {
+            return null;
+        }
+        return HtmlUtils.htmlEscape(headline)
+                .replace(START, "<mark>")
+                .replace(STOP, "</mark>");
+    }
+}
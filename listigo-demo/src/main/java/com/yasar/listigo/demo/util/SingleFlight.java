@@ -0,0 +1,62 @@
+package com.yasar.listigo.demo.util;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.function.Supplier;
+
+/**
+ * Coalesces concurrent calls for the same key into one. The first caller runs the loader on
+ * its own thread, so its transaction and security context apply; callers arriving while it
+ * is in flight wait for and share its result or exception. The key is released as soon as
+ * the call completes, so nothing is cached beyond the burst.
+ *
+ * @param <K> key type, must implement equals and hashCode
+ * @param <V> result type
+ */
+public final class SingleFlight<K, V> {
+
+    private final ConcurrentMap<K, CompletableFuture<V>> inFlight = new ConcurrentHashMap<>();
+
+    /**
+     * Runs the loader for the key unless a call for the same key is already running, in
+     * which case waits for that call instead.
+     *
+     * @param key    identifies equivalent calls
+     * @param loader computes the result when this caller is the first for the key
+     * @return the result of the in-flight call
+     */
+    public V execute(K key, Supplier<V> loader) {
+        CompletableFuture<V> call = new CompletableFuture<>();
+        CompletableFuture<V> existing = inFlight.putIfAbsent(key, call);
+        if (existing != null) {
+            return await(existing);
+        }
+
+        try {
+            V result = loader.get();
+            call.complete(result);
+            return result;
+        } catch (RuntimeException | Error ex) {
+            call.completeExceptionally(ex);
+            throw ex;
+        } finally {
+            inFlight.remove(key, call);
+        }
+    }
+
+    private V await(CompletableFuture<V> call) {
+        try {
+            return call.join();
+        } catch (CompletionException ex) {
+            if (ex.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            if (ex.getCause() instanceof Error cause) {
+                throw cause;
+            }
+            throw ex;
+        }
+    }
+}